@@ -0,0 +1,120 @@
+package com.example.onlinejudge.checker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a stream one byte at a time through a fixed buffer and keeps track
+ * of the line and column, so comparisons can say where outputs differ. Data
+ * already in memory, such as a mapped test file, is read in place.
+ */
+class ByteReader {
+    
+    static final int EOF = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final InputStream in; // null when reading a buffer in place
+    private final ByteBuffer buffer;
+    private long line = 1;
+    private long column; // bytes read so far on the current line
+    
+    ByteReader(InputStream in) {
+        this.in = in;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+    }
+    
+    /**
+     * Reads the buffer's remaining bytes without changing its position.
+     */
+    ByteReader(ByteBuffer content) {
+        this.in = null;
+        this.buffer = content.duplicate();
+    }
+    
+    int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        return buffer.get(buffer.position()) & 0xff;
+    }
+    
+    int next() throws IOException {
+        int b = peek();
+        if (b != EOF) {
+            buffer.position(buffer.position() + 1);
+            if (b == '\n') {
+                line++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+        return b;
+    }
+    
+    void skipWhitespace() throws IOException {
+        while (isWhitespace(peek())) {
+            next();
+        }
+    }
+    
+    /**
+     * Skips spaces, tabs and carriage returns, stopping at a line break.
+     */
+    void skipLineSpace() throws IOException {
+        int b;
+        while ((b = peek()) == ' ' || b == '\t' || b == '\r') {
+            next();
+        }
+    }
+    
+    /**
+     * Reads the token at the current position into the buffer, up to its
+     * length. Returns the number of bytes read; the rest of a longer token is
+     * left unread.
+     */
+    int readToken(byte[] token) throws IOException {
+        int length = 0;
+        while (length < token.length && !isTokenEnd(peek())) {
+            token[length++] = (byte) next();
+        }
+        return length;
+    }
+    
+    /**
+     * Skips whitespace and tells whether the stream ends there.
+     */
+    boolean onlyWhitespaceLeft() throws IOException {
+        skipWhitespace();
+        return peek() == EOF;
+    }
+    
+    long line() {
+        return line;
+    }
+    
+    long column() {
+        return column;
+    }
+    
+    static boolean isTokenEnd(int b) {
+        return b == EOF || isWhitespace(b);
+    }
+    
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '\f' || b == 0x0b;
+    }
+    
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int read;
+        do {
+            read = in.read(buffer.array());
+        } while (read == 0);
+        buffer.position(0).limit(Math.max(read, 0));
+        return read > 0;
+    }
+}
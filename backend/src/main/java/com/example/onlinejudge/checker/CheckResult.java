@@ -0,0 +1,22 @@
+package com.example.onlinejudge.checker;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CheckResult {
+    private static final CheckResult ACCEPTED = new CheckResult(true, null);
+    
+    private final boolean accepted;
+    private final String message; // where the output first differs; null when accepted
+    
+    public static CheckResult accepted() {
+        return ACCEPTED;
+    }
+    
+    public static CheckResult mismatch(String message) {
+        return new CheckResult(false, message);
+    }
+}
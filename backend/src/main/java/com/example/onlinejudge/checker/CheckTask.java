@@ -0,0 +1,24 @@
+package com.example.onlinejudge.checker;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * One test to check. Input and output are in the submission's workspace;
+ * the expected output is a read-only file of the test data store, and also
+ * its mapping when the test set cache holds one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckTask {
+    private String name;
+    private Path inputFile;
+    private Path expectedFile;
+    private Path outputFile; // may not exist if the program wrote nothing
+    private ByteBuffer expectedOutput; // may be null; read the file then
+}
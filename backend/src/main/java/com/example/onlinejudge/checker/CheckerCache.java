@@ -0,0 +1,128 @@
+package com.example.onlinejudge.checker;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.sandbox.CompileResult;
+import com.example.onlinejudge.sandbox.Language;
+import com.example.onlinejudge.sandbox.Sandbox;
+import com.example.onlinejudge.sandbox.SandboxFiles;
+import com.example.onlinejudge.sandbox.SandboxLimits;
+import com.example.onlinejudge.sandbox.SandboxSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled problem checkers, keyed by a hash of their language and source.
+ * A checker is compiled the first time a submission needs it and its build
+ * is kept in {@code judge.checker.cache-dir}; every later submission only
+ * copies the build into a fresh sandbox. Editing the checker changes the
+ * hash, so stale builds are never used. Submissions arriving together for a
+ * new checker wait for one compilation, and a checker the compiler rejects
+ * is remembered so it is not retried for every submission. A compilation
+ * that timed out or failed without diagnostics may have been a busy or broken
+ * sandbox, so it is retried by the next submission.
+ */
+@Service
+@Slf4j
+public class CheckerCache {
+    
+    private final Sandbox sandbox;
+    private final SandboxLimits limits;
+    private final Path cacheDir;
+    
+    private final Map<String, Object> compileLocks = new ConcurrentHashMap<>();
+    private final Map<String, String> compileFailures = new ConcurrentHashMap<>();
+    
+    public CheckerCache(Sandbox sandbox, JudgeProperties judgeProperties) {
+        JudgeProperties.Checker checker = judgeProperties.getChecker();
+        this.sandbox = sandbox;
+        this.limits = new SandboxLimits(checker.getTimeLimitSeconds(), checker.getMemoryLimitMb(),
+                judgeProperties.getCompileTimeoutSeconds());
+        this.cacheDir = Path.of(checker.getCacheDir());
+    }
+    
+    /**
+     * Opens a sandbox with the checker built and ready to run.
+     */
+    public CheckerSession open(String languageName, String source) throws IOException, InterruptedException {
+        if (languageName == null) {
+            throw new CheckerException("Checker has no language set");
+        }
+        Language language = Language.fromName(languageName);
+        Path build = build(language, source);
+        SandboxSession session = sandbox.open(language, limits);
+        try {
+            SandboxFiles.copyDirectory(build, session.getWorkspace());
+        } catch (IOException e) {
+            session.close();
+            throw e;
+        }
+        return new CheckerSession(session);
+    }
+    
+    private Path build(Language language, String source) throws IOException, InterruptedException {
+        String key = key(language, source);
+        Path build = cacheDir.resolve(key);
+        if (Files.isDirectory(build)) {
+            return build;
+        }
+        
+        synchronized (compileLocks.computeIfAbsent(key, k -> new Object())) {
+            if (Files.isDirectory(build)) {
+                return build;
+            }
+            String failure = compileFailures.get(key);
+            if (failure != null) {
+                throw new CheckerException("Checker does not compile: " + failure);
+            }
+            
+            log.info("Compiling {} checker {}", language, key.substring(0, 12));
+            try (SandboxSession session = sandbox.open(language, limits)) {
+                Path workspace = session.getWorkspace();
+                Files.writeString(workspace.resolve(language.getSourceFile()), source);
+                CompileResult result = session.compile();
+                if (!result.isSuccess()) {
+                    if (isDiagnostic(result)) {
+                        compileFailures.put(key, result.getOutput());
+                    }
+                    throw new CheckerException("Checker does not compile: " + result.getOutput());
+                }
+                Files.deleteIfExists(workspace.resolve("compile.log"));
+                
+                // Copied aside and renamed into place, so a build is either complete or absent
+                Files.createDirectories(cacheDir);
+                Path staging = Files.createTempDirectory(cacheDir, key + ".");
+                SandboxFiles.copyDirectory(workspace, staging);
+                Files.move(staging, build, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return build;
+        }
+    }
+    
+    // The compiler itself rejected the source, so compiling again gives the same answer
+    private static boolean isDiagnostic(CompileResult result) {
+        return !result.isTimedOut() && result.getOutput() != null && !result.getOutput().isBlank();
+    }
+    
+    private static String key(Language language, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(language.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
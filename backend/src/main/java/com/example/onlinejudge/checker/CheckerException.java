@@ -0,0 +1,12 @@
+package com.example.onlinejudge.checker;
+
+/**
+ * A problem's checker could not be built or did not give a usable answer.
+ * This is a fault of the problem setup, not of the submission being judged.
+ */
+public class CheckerException extends RuntimeException {
+    
+    public CheckerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.onlinejudge.checker;
+
+import com.example.onlinejudge.sandbox.RunRequest;
+import com.example.onlinejudge.sandbox.RunResult;
+import com.example.onlinejudge.sandbox.SandboxSession;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A problem's checker program, built and ready in its own sandbox, for the
+ * tests of one submission. Every call to {@link #check} is one run of the
+ * checker. It reads one line per test on stdin, holding the paths of the
+ * input, the expected output and the program's output separated by spaces,
+ * and writes one verdict line per test to stdout: {@code ok}, or
+ * {@code wrong} followed by an optional message for the contestant. Any other
+ * answer, a crash or a timeout is a checker failure.
+ */
+@RequiredArgsConstructor
+public class CheckerSession implements OutputChecker {
+    
+    private static final int MAX_MESSAGE_CHARS = 200;
+    
+    private final SandboxSession session;
+    private int invocations;
+    
+    /**
+     * Synchronized, since parallel test slots share the session.
+     */
+    @Override
+    public synchronized List<CheckResult> check(List<CheckTask> tasks) throws IOException, InterruptedException {
+        Path workspace = session.getWorkspace();
+        Files.createDirectories(workspace.resolve("checks"));
+        
+        StringBuilder list = new StringBuilder();
+        for (CheckTask task : tasks) {
+            String base = "checks/" + task.getName();
+            share(task.getInputFile().toRealPath(), workspace.resolve(base + ".in"));
+            share(task.getExpectedFile(), workspace.resolve(base + ".ans"));
+            if (Files.exists(task.getOutputFile())) {
+                link(task.getOutputFile(), workspace.resolve(base + ".out"));
+            } else {
+                Files.write(workspace.resolve(base + ".out"), new byte[0]);
+            }
+            list.append(base).append(".in ").append(base).append(".ans ").append(base).append(".out\n");
+        }
+        
+        String name = "check" + (++invocations);
+        Files.writeString(workspace.resolve(name + ".txt"), list);
+        RunRequest run = new RunRequest(name, name + ".txt", name + ".log");
+        List<RunResult> results = session.run(List.of(run));
+        if (results.isEmpty()) {
+            throw new CheckerException("Checker did not run");
+        }
+        RunResult result = results.get(0);
+        if (result.isTimedOut()) {
+            throw new CheckerException("Checker timed out");
+        }
+        if (result.getExitCode() != 0) {
+            throw new CheckerException("Checker failed (exit code: " + result.getExitCode() + ")");
+        }
+        return readVerdicts(workspace.resolve(run.getOutputFile()), tasks);
+    }
+    
+    @Override
+    public void close() {
+        session.close();
+    }
+    
+    private List<CheckResult> readVerdicts(Path verdictFile, List<CheckTask> tasks) throws IOException {
+        List<CheckResult> verdicts = new ArrayList<>(tasks.size());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(verdictFile), StandardCharsets.UTF_8))) {
+            for (CheckTask task : tasks) {
+                String line = reader.readLine();
+                if (line == null) {
+                    throw new CheckerException("Checker gave no verdict for test " + task.getName());
+                }
+                verdicts.add(parseVerdict(line.strip(), task));
+            }
+        }
+        return verdicts;
+    }
+    
+    private CheckResult parseVerdict(String line, CheckTask task) {
+        if (line.equals("ok") || line.startsWith("ok ")) {
+            return CheckResult.accepted();
+        }
+        if (line.equals("wrong") || line.startsWith("wrong ")) {
+            String message = line.substring("wrong".length()).strip();
+            if (message.length() > MAX_MESSAGE_CHARS) {
+                message = message.substring(0, MAX_MESSAGE_CHARS) + "...";
+            }
+            return CheckResult.mismatch(message.isEmpty() ? "rejected by the checker" : message);
+        }
+        throw new CheckerException("Checker gave an unreadable verdict for test " + task.getName());
+    }
+    
+    /**
+     * Symlinks test data of the store, whose read-only copies are mounted in
+     * every sandbox; copies where symlinks cannot be made.
+     */
+    private static void share(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createSymbolicLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, target);
+        }
+    }
+    
+    /**
+     * Hard links the program's output where the workspaces share a
+     * filesystem, since outputs can be large; copies otherwise.
+     */
+    private static void link(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
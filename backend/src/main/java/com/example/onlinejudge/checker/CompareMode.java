@@ -0,0 +1,15 @@
+package com.example.onlinejudge.checker;
+
+/**
+ * How a program's output is compared with the expected output.
+ */
+public enum CompareMode {
+    /** Byte for byte. */
+    EXACT,
+    /** Line by line, ignoring trailing whitespace on each line and blank lines at the end. */
+    LINES,
+    /** Whitespace-separated tokens; any amount or kind of whitespace between them. */
+    TOKENS,
+    /** Like TOKENS, but numbers match within an absolute or relative error. */
+    FLOAT
+}
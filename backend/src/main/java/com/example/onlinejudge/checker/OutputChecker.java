@@ -0,0 +1,23 @@
+package com.example.onlinejudge.checker;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Decides whether the outputs of a submission's test runs are correct:
+ * {@link OutputComparator} for the built-in compare modes, or a problem's
+ * own checker program through {@link CheckerSession}. Used for one
+ * submission and closed when it is judged.
+ */
+public interface OutputChecker extends AutoCloseable {
+    
+    /**
+     * Checks several tests at once, which for a checker program means one
+     * invocation. Returns one result per task, in order.
+     */
+    List<CheckResult> check(List<CheckTask> tasks) throws IOException, InterruptedException;
+    
+    @Override
+    default void close() {
+    }
+}
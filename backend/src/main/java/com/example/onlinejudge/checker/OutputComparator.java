@@ -0,0 +1,241 @@
+package com.example.onlinejudge.checker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.onlinejudge.checker.ByteReader.EOF;
+
+/**
+ * Compares a program's output with the expected output as two streams, in
+ * one pass and with fixed-size buffers, so memory stays the same however
+ * large the outputs are. Stops at the first difference and reports where it
+ * is; never quotes the expected output, which belongs to a hidden test.
+ */
+public class OutputComparator implements OutputChecker {
+    
+    public static final double DEFAULT_FLOAT_ERROR = 1e-6;
+    // Longer tokens are compared byte by byte, never as numbers
+    private static final int MAX_NUMBER_LENGTH = 64;
+    
+    private final CompareMode mode;
+    private final double absoluteError;
+    private final double relativeError;
+    
+    public OutputComparator(CompareMode mode, Double absoluteError, Double relativeError) {
+        this.mode = mode != null ? mode : CompareMode.LINES;
+        this.absoluteError = absoluteError != null ? absoluteError : DEFAULT_FLOAT_ERROR;
+        this.relativeError = relativeError != null ? relativeError : DEFAULT_FLOAT_ERROR;
+    }
+    
+    @Override
+    public List<CheckResult> check(List<CheckTask> tasks) throws IOException {
+        List<CheckResult> results = new ArrayList<>(tasks.size());
+        for (CheckTask task : tasks) {
+            try (InputStream actual = Files.exists(task.getOutputFile())
+                    ? Files.newInputStream(task.getOutputFile())
+                    : InputStream.nullInputStream()) {
+                if (task.getExpectedOutput() != null) {
+                    results.add(compare(task.getExpectedOutput(), actual));
+                } else {
+                    try (InputStream expected = Files.newInputStream(task.getExpectedFile())) {
+                        results.add(compare(expected, actual));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+    
+    public CheckResult compare(InputStream expected, InputStream actual) throws IOException {
+        return compare(new ByteReader(expected), new ByteReader(actual));
+    }
+    
+    /**
+     * Compares against expected output already in memory, read in place.
+     */
+    public CheckResult compare(ByteBuffer expected, InputStream actual) throws IOException {
+        return compare(new ByteReader(expected), new ByteReader(actual));
+    }
+    
+    private CheckResult compare(ByteReader expectedReader, ByteReader actualReader) throws IOException {
+        return switch (mode) {
+            case EXACT -> compareExact(expectedReader, actualReader);
+            case LINES -> compareLines(expectedReader, actualReader);
+            case TOKENS -> compareTokens(expectedReader, actualReader, false);
+            case FLOAT -> compareTokens(expectedReader, actualReader, true);
+        };
+    }
+    
+    private CheckResult compareExact(ByteReader expected, ByteReader actual) throws IOException {
+        while (true) {
+            int e = expected.peek();
+            int a = actual.peek();
+            if (e != a) {
+                return differs(expected, actual);
+            }
+            if (e == EOF) {
+                return CheckResult.accepted();
+            }
+            expected.next();
+            actual.next();
+        }
+    }
+    
+    /**
+     * Walks both outputs in step. Where they first part, the difference is
+     * only allowed to be trailing whitespace: both lines must end right after
+     * it, or one output must have nothing but whitespace left.
+     */
+    private CheckResult compareLines(ByteReader expected, ByteReader actual) throws IOException {
+        while (true) {
+            int e = expected.peek();
+            int a = actual.peek();
+            if (e == a) {
+                if (e == EOF) {
+                    return CheckResult.accepted();
+                }
+                expected.next();
+                actual.next();
+                continue;
+            }
+            
+            expected.skipLineSpace();
+            actual.skipLineSpace();
+            e = expected.peek();
+            a = actual.peek();
+            if (e == '\n' && a == '\n') {
+                expected.next();
+                actual.next();
+            } else if (e == EOF && a == EOF) {
+                return CheckResult.accepted();
+            } else if (e == EOF) {
+                return actual.onlyWhitespaceLeft() ? CheckResult.accepted() : extraOutput(actual);
+            } else if (a == EOF) {
+                return expected.onlyWhitespaceLeft() ? CheckResult.accepted() : endsEarly(expected);
+            } else {
+                return CheckResult.mismatch("line " + expected.line() + " differs");
+            }
+        }
+    }
+    
+    private CheckResult compareTokens(ByteReader expected, ByteReader actual, boolean numeric) throws IOException {
+        byte[] expectedToken = numeric ? new byte[MAX_NUMBER_LENGTH] : null;
+        byte[] actualToken = numeric ? new byte[MAX_NUMBER_LENGTH] : null;
+        long token = 0;
+        while (true) {
+            expected.skipWhitespace();
+            actual.skipWhitespace();
+            int e = expected.peek();
+            int a = actual.peek();
+            if (e == EOF && a == EOF) {
+                return CheckResult.accepted();
+            } else if (e == EOF) {
+                return extraOutput(actual);
+            } else if (a == EOF) {
+                return endsEarly(expected);
+            }
+            
+            token++;
+            long line = actual.line();
+            boolean same = numeric
+                    ? sameNumber(expected, actual, expectedToken, actualToken)
+                    : sameToken(expected, actual);
+            if (!same) {
+                return CheckResult.mismatch("token " + token + " (line " + line + ") differs");
+            }
+        }
+    }
+    
+    /**
+     * Compares the rest of the current token on both sides.
+     */
+    private boolean sameToken(ByteReader expected, ByteReader actual) throws IOException {
+        while (true) {
+            int e = expected.peek();
+            int a = actual.peek();
+            boolean expectedEnd = ByteReader.isTokenEnd(e);
+            boolean actualEnd = ByteReader.isTokenEnd(a);
+            if (expectedEnd || actualEnd) {
+                return expectedEnd && actualEnd;
+            }
+            if (e != a) {
+                return false;
+            }
+            expected.next();
+            actual.next();
+        }
+    }
+    
+    /**
+     * Equal tokens match without parsing; otherwise both must be numbers
+     * within the allowed error of each other.
+     */
+    private boolean sameNumber(ByteReader expected, ByteReader actual, byte[] expectedToken, byte[] actualToken)
+            throws IOException {
+        int expectedLength = expected.readToken(expectedToken);
+        int actualLength = actual.readToken(actualToken);
+        boolean equal = Arrays.equals(expectedToken, 0, expectedLength, actualToken, 0, actualLength);
+        if (!ByteReader.isTokenEnd(expected.peek()) || !ByteReader.isTokenEnd(actual.peek())) {
+            return equal && sameToken(expected, actual); // too long to be a number
+        }
+        if (equal) {
+            return true;
+        }
+        
+        double e = parseNumber(expectedToken, expectedLength);
+        double a = parseNumber(actualToken, actualLength);
+        if (Double.isNaN(e) || Double.isNaN(a)) {
+            return false;
+        }
+        double difference = Math.abs(a - e);
+        return difference <= absoluteError || difference <= relativeError * Math.abs(e);
+    }
+    
+    /**
+     * Decimal numbers only: NaN for anything else, including the "NaN",
+     * "Infinity" and hex forms Double.parseDouble would accept.
+     */
+    private static double parseNumber(byte[] token, int length) {
+        boolean digit = false;
+        for (int i = 0; i < length; i++) {
+            byte b = token[i];
+            if (b >= '0' && b <= '9') {
+                digit = true;
+            } else if (b != '+' && b != '-' && b != '.' && b != 'e' && b != 'E') {
+                return Double.NaN;
+            }
+        }
+        if (!digit) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(new String(token, 0, length, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+    
+    private CheckResult differs(ByteReader expected, ByteReader actual) throws IOException {
+        if (actual.peek() == EOF) {
+            return endsEarly(expected);
+        }
+        if (expected.peek() == EOF) {
+            return extraOutput(actual);
+        }
+        return CheckResult.mismatch("line " + expected.line() + ", column " + (expected.column() + 1) + " differs");
+    }
+    
+    private CheckResult endsEarly(ByteReader expected) {
+        return CheckResult.mismatch("output ends early, more expected on line " + expected.line());
+    }
+    
+    private CheckResult extraOutput(ByteReader actual) {
+        return CheckResult.mismatch("unexpected extra output on line " + actual.line());
+    }
+}
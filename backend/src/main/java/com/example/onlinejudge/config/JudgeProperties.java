@@ -0,0 +1,286 @@
+package com.example.onlinejudge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "judge")
+@Data
+public class JudgeProperties {
+    
+    /**
+     * Sandbox backend: "docker" isolates every submission in a container,
+     * "local" runs plain processes under rlimits (trusted traffic only).
+     */
+    private String sandbox = "docker";
+    
+    /**
+     * Docker image every sandbox container is started from.
+     */
+    private String image = "onlinejudge-judge:latest";
+    
+    /**
+     * Run all test cases of a submission in a single sandbox call instead of
+     * one call per test case.
+     */
+    private boolean batchExecution = true;
+    
+    private long compileTimeoutSeconds = 30;
+    
+    private Queue queue = new Queue();
+    
+    private Scheduler scheduler = new Scheduler();
+    
+    private Pool pool = new Pool();
+    
+    private Parallel parallel = new Parallel();
+    
+    private Checker checker = new Checker();
+    
+    private TestCache testCache = new TestCache();
+    
+    private VerdictCache verdictCache = new VerdictCache();
+    
+    @Data
+    public static class Queue {
+        
+        /**
+         * Judge worker threads; match the number of sandboxes the host can run
+         * at once. 0 leaves judging to separate judge-worker nodes.
+         */
+        private int workers = Runtime.getRuntime().availableProcessors();
+        
+        /**
+         * How long idle workers wait between polls of the queue table. New
+         * submissions on this node wake them immediately.
+         */
+        private long pollIntervalMs = 1000;
+        
+        /**
+         * How long a claimed job stays owned by its worker without a heartbeat.
+         */
+        private Duration leaseDuration = Duration.ofSeconds(30);
+        
+        /**
+         * How often leases of running jobs are renewed and expired leases are
+         * requeued; keep well below the lease duration.
+         */
+        private long heartbeatIntervalMs = 10000;
+        
+        /**
+         * Claims a job gets before its submission is failed with a judge error.
+         */
+        private int maxAttempts = 3;
+        
+        /**
+         * Stable identity of this node in job leases and pool container
+         * labels. When set, leases left behind by a previous run of the same
+         * node are released at startup instead of waiting for them to expire.
+         * Give every node sharing a database or Docker host its own id.
+         */
+        private String nodeId;
+        
+        /**
+         * Time running judges get to finish on shutdown before they are
+         * interrupted and their jobs handed back to the queue.
+         */
+        private Duration shutdownGracePeriod = Duration.ofSeconds(20);
+        
+        /**
+         * Most verdicts written in one transaction. Verdicts finishing while a
+         * batch is being written are grouped into the next one.
+         */
+        private int verdictBatchSize = 32;
+        
+        /**
+         * Hard limit on submissions queued or being judged, rejudges aside;
+         * new submissions get 503 beyond it.
+         */
+        private long maxPending = 10000;
+        
+        /**
+         * Same per user; 429 beyond it.
+         */
+        private long maxPendingPerUser = 10;
+        
+        /**
+         * Value of the Retry-After header sent with 429/503 responses.
+         */
+        private long retryAfterSeconds = 5;
+    }
+    
+    @Data
+    public static class Scheduler {
+        
+        /**
+         * How far behind live contest submissions practice submissions are
+         * queued: a practice job only overtakes live jobs enqueued this much
+         * later than itself.
+         */
+        private Duration practiceDelay = Duration.ofSeconds(30);
+        
+        /**
+         * Same for rejudges, which should only use capacity nobody else needs.
+         */
+        private Duration rejudgeDelay = Duration.ofMinutes(5);
+        
+        /**
+         * Extra delay per job a user already has waiting in the same lane, so
+         * users with many queued submissions share the workers with others.
+         */
+        private Duration userQuantum = Duration.ofSeconds(5);
+        
+        /**
+         * Most the user quantum can add up to, however many jobs the user
+         * has waiting; bounds how long any job can be overtaken.
+         */
+        private Duration maxUserDelay = Duration.ofMinutes(2);
+    }
+    
+    @Data
+    public static class Pool {
+        
+        /**
+         * Take batched sandboxes from pre-started, paused containers instead of
+         * cold-starting a container for every submission.
+         */
+        private boolean enabled = false;
+        
+        /**
+         * Number of idle containers kept per language, e.g. judge.pool.size.java=4.
+         */
+        private Map<String, Integer> size = new HashMap<>(Map.of("java", 4, "cpp", 4, "python", 4));
+        
+        /**
+         * How often the pool is topped up and idle containers are checked.
+         */
+        private Duration refillInterval = Duration.ofSeconds(1);
+        
+        /**
+         * Maximum containers started per language on each refill tick.
+         */
+        private int refillBatchSize = 2;
+        
+        /**
+         * Idle containers older than this are removed and replaced.
+         */
+        private Duration maxIdle = Duration.ofMinutes(10);
+        
+        /**
+         * Submissions a container may judge before it is thrown away.
+         */
+        private int maxUses = 20;
+        
+        /**
+         * Memory ceiling containers are created with; lowered to the problem's
+         * limit when a container is handed out.
+         */
+        private int memoryLimitMb = 512;
+        
+        /**
+         * Host directory holding one workspace per pooled container.
+         */
+        private String workspaceRoot = System.getProperty("java.io.tmpdir") + "/onlinejudge-pool";
+        
+        /**
+         * Unprivileged uid:gid that everything in a judge container runs as
+         * (nobody by default), so submissions cannot change the image.
+         */
+        private String user = "65534:65534";
+        
+        /**
+         * Most processes and threads a container may run at once; a JVM
+         * alone needs a few dozen.
+         */
+        private int pidsLimit = 256;
+        
+        /**
+         * Size of the in-memory /tmp of a container, counted against its
+         * memory limit.
+         */
+        private int tmpSizeMb = 64;
+    }
+    
+    @Data
+    public static class Parallel {
+        
+        /**
+         * Sandbox sessions the test cases of one submission are spread over.
+         * 1 keeps the plain sequential or batched run.
+         */
+        private int slots = 1;
+        
+        /**
+         * Only fan out while at most this many submissions are being judged,
+         * so idle capacity is used without starving queued submissions.
+         */
+        private int maxActiveSubmissions = 2;
+    }
+    
+    @Data
+    public static class Checker {
+        
+        /**
+         * Directory holding compiled problem checkers, one subdirectory per
+         * checker source hash. Survives restarts, so each checker is built once
+         * per node.
+         */
+        private String cacheDir = System.getProperty("java.io.tmpdir") + "/onlinejudge-checkers";
+        
+        /**
+         * Time one checker invocation may take; a batched invocation checks
+         * all tests of a submission.
+         */
+        private int timeLimitSeconds = 30;
+        
+        private int memoryLimitMb = 512;
+    }
+    
+    @Data
+    public static class TestCache {
+        
+        /**
+         * Keep the test data of recently judged problems memory-mapped and
+         * shared by all judge threads.
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Most test data mapped at once; least recently used test sets are
+         * dropped beyond it.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+        
+        /**
+         * How often problems of live contests are looked for and mapped.
+         */
+        private long warmIntervalMs = 60000;
+        
+        /**
+         * How long before its start a contest's test data is mapped.
+         */
+        private Duration warmAhead = Duration.ofMinutes(10);
+    }
+    
+    @Data
+    public static class VerdictCache {
+        
+        /**
+         * Give byte-identical resubmissions the verdict of the earlier
+         * submission instead of judging them again.
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Results whose slowest test took more than this fraction of the time
+         * limit are judged again, since timing varies between runs.
+         */
+        private double maxTimeFraction = 0.75;
+    }
+}
@@ -1,28 +1,65 @@
 package com.example.onlinejudge.controller;
 
 import com.example.onlinejudge.dto.*;
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
 import com.example.onlinejudge.service.ContestService;
+import com.example.onlinejudge.service.ContestViewCache;
+import com.example.onlinejudge.service.ContestViewCache.CachedView;
+import com.example.onlinejudge.service.JudgeQueueFullException;
+import com.example.onlinejudge.service.SubmissionEventService;
 import com.example.onlinejudge.service.SubmissionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.RETRY_AFTER)
 public class ContestController {
     
+    private static final int MAX_LEADERBOARD_PAGE = 500;
+    private static final int MAX_SAMPLE_PAGE = 20;
+    private static final int MAX_SUBMISSION_PAGE = 200;
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+    
     private final ContestService contestService;
+    private final ContestViewCache contestViewCache;
     private final SubmissionService submissionService;
+    private final SubmissionEventService submissionEventService;
+    
+    // Operations such as rejudges are disabled unless a token is configured
+    @Value("${admin.token:}")
+    private String adminToken;
     
     @GetMapping("/contests/{contestId}")
-    public ResponseEntity<ContestDto> getContest(@PathVariable Long contestId) {
+    public ResponseEntity<byte[]> getContest(@PathVariable Long contestId) {
+        try {
+            return cachedView(contestViewCache.getContest(contestId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/problems/{problemId}/samples")
+    public ResponseEntity<byte[]> getSamples(
+            @PathVariable Long problemId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "5") int size) {
+        if (page < 0 || size < 1 || size > MAX_SAMPLE_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            ContestDto contest = contestService.getContestById(contestId);
-            return ResponseEntity.ok(contest);
+            return cachedView(contestViewCache.getSamples(problemId, page, size));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -33,6 +70,32 @@ public class ContestController {
         try {
             SubmissionDto submission = submissionService.submitCode(request);
             return ResponseEntity.ok(submission);
+        } catch (JudgeQueueFullException e) {
+            return ResponseEntity.status(e.isPerUser() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Admin only: needs the configured {@code admin.token} in the
+     * X-Admin-Token header, and does not exist while no token is set.
+     */
+    @PostMapping("/contests/{contestId}/problems/{problemId}/rejudge")
+    public ResponseEntity<Integer> rejudgeProblem(
+            @PathVariable Long contestId,
+            @PathVariable Long problemId,
+            @RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (adminToken.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isAdminToken(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(submissionService.rejudgeProblem(contestId, problemId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -48,35 +111,112 @@ public class ContestController {
         }
     }
     
+    @GetMapping("/submissions/{submissionId}/tests")
+    public ResponseEntity<List<SubmissionTestResultDto>> getSubmissionTests(@PathVariable Long submissionId) {
+        try {
+            return ResponseEntity.ok(submissionService.getTestResults(submissionId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping(value = "/submissions/{submissionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getSubmissionEvents(@PathVariable Long submissionId) {
+        try {
+            return ResponseEntity.ok(submissionEventService.subscribe(submissionId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @GetMapping("/contests/{contestId}/leaderboard")
-    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboard(@PathVariable Long contestId) {
+    public ResponseEntity<LeaderboardPageDto> getLeaderboard(
+            @PathVariable Long contestId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LEADERBOARD_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<LeaderboardEntryDto> leaderboard = contestService.getLeaderboard(contestId);
+            LeaderboardPageDto leaderboard = contestService.getLeaderboard(contestId, offset, limit);
             return ResponseEntity.ok(leaderboard);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
     
-    @GetMapping("/contests/{contestId}/submissions")
-    public ResponseEntity<List<SubmissionDto>> getContestSubmissions(@PathVariable Long contestId) {
+    @GetMapping(value = "/contests/{contestId}/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getLeaderboardStream(@PathVariable Long contestId) {
+        try {
+            return ResponseEntity.ok(contestService.subscribeLeaderboard(contestId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/contests/{contestId}/leaderboard/rank/{username}")
+    public ResponseEntity<LeaderboardEntryDto> getLeaderboardRank(
+            @PathVariable Long contestId,
+            @PathVariable String username) {
         try {
-            List<SubmissionDto> submissions = submissionService.getSubmissionsByContest(contestId);
-            return ResponseEntity.ok(submissions);
+            return ResponseEntity.ok(contestService.getLeaderboardRank(contestId, username));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @GetMapping("/contests/{contestId}/submissions")
+    public ResponseEntity<SubmissionPageDto> getContestSubmissions(
+            @PathVariable Long contestId,
+            @RequestParam(required = false) Long problemId,
+            @RequestParam(name = "status", required = false) List<SubmissionStatus> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return submissionPage(contestId, null, problemId, statuses, cursor, limit);
+    }
+    
     @GetMapping("/contests/{contestId}/submissions/{username}")
-    public ResponseEntity<List<SubmissionDto>> getUserSubmissions(
+    public ResponseEntity<SubmissionPageDto> getUserSubmissions(
             @PathVariable Long contestId, 
-            @PathVariable String username) {
+            @PathVariable String username,
+            @RequestParam(required = false) Long problemId,
+            @RequestParam(name = "status", required = false) List<SubmissionStatus> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return submissionPage(contestId, username, problemId, statuses, cursor, limit);
+    }
+    
+    private ResponseEntity<SubmissionPageDto> submissionPage(Long contestId, String username, Long problemId,
+                                                             List<SubmissionStatus> statuses,
+                                                             String cursor, int limit) {
+        if (limit < 1 || limit > MAX_SUBMISSION_PAGE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<SubmissionDto> submissions = submissionService.getSubmissionsByUser(username, contestId);
-            return ResponseEntity.ok(submissions);
+            return ResponseEntity.ok(submissionService.getSubmissions(
+                    contestId, username, problemId, statuses, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    /**
+     * Spring answers a matching If-None-Match with 304 and no body because
+     * the ETag is set on the entity.
+     */
+    private ResponseEntity<byte[]> cachedView(CachedView view) {
+        return ResponseEntity.ok()
+                .eTag(view.getEtag())
+                .cacheControl(contestViewCache.getCacheControl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view.getBody());
+    }
+    
+    private boolean isAdminToken(String token) {
+        // Constant time, so the token cannot be guessed byte by byte
+        return token != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                adminToken.getBytes(StandardCharsets.UTF_8));
+    }
 }
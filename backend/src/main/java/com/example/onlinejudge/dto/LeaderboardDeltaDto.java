@@ -0,0 +1,19 @@
+package com.example.onlinejudge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One contestant's row moved. Rows between the old and new rank shift by one,
+ * which clients work out themselves.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDeltaDto {
+    private long version; // board version after this change
+    private String username;
+    private LeaderboardEntryDto entry; // null when the contestant dropped off the board
+    private int total;
+}
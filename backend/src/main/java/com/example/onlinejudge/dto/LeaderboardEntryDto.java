@@ -8,9 +8,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LeaderboardEntryDto {
+    private int rank; // 1-based
     private String username;
     private int solvedProblems;
     private int totalSubmissions;
     private int acceptedSubmissions;
-    private long totalTime; // in minutes
+    private long totalTime; // ICPC time in minutes: solve times plus penalties
 }
@@ -0,0 +1,18 @@
+package com.example.onlinejudge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPageDto {
+    private int offset;
+    private int limit;
+    private int total; // ranked contestants in the whole leaderboard
+    private long version; // board version the page was read at
+    private List<LeaderboardEntryDto> entries;
+}
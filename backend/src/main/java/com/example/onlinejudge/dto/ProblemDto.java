@@ -18,5 +18,6 @@ public class ProblemDto {
     private Integer timeLimit;
     private Integer memoryLimit;
     private Integer difficulty;
-    private List<TestCaseDto> testCases;
+    private int sampleCount; // all samples; the full set is paged from /problems/{id}/samples
+    private List<TestCaseDto> samples; // the first few small samples only
 }
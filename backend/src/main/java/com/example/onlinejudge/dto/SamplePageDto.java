@@ -0,0 +1,17 @@
+package com.example.onlinejudge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SamplePageDto {
+    private int page;
+    private int size;
+    private long total;
+    private List<TestCaseDto> samples;
+}
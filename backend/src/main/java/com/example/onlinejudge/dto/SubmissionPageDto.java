@@ -0,0 +1,15 @@
+package com.example.onlinejudge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionPageDto {
+    private List<SubmissionSummaryDto> submissions; // newest first
+    private String nextCursor; // pass as ?cursor= for the next page; null on the last page
+}
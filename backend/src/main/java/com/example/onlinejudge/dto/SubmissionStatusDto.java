@@ -0,0 +1,18 @@
+package com.example.onlinejudge.dto;
+
+import com.example.onlinejudge.model.Submission;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionStatusDto {
+    private Long submissionId;
+    private Submission.SubmissionStatus status;
+    private String result;
+    private String errorMessage;
+    private int testsCompleted;
+    private int totalTests; // 0 until the test count is known
+}
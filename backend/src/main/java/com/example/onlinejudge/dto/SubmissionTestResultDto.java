@@ -0,0 +1,17 @@
+package com.example.onlinejudge.dto;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionTestResultDto {
+    private int testNumber;
+    private SubmissionStatus status;
+    private Integer wallTimeMs;
+    private Integer cpuTimeMs;
+    private Integer peakMemoryKb;
+}
@@ -0,0 +1,70 @@
+package com.example.onlinejudge.migration;
+
+import com.example.onlinejudge.service.TestDataStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Moves test inputs and expected outputs out of the test_cases TEXT columns
+ * into the {@link TestDataStore}, leaving only their hashes and sizes in the
+ * table. A Spring bean rather than a script, since it needs the store; Spring
+ * Boot hands such beans to Flyway, so the judge-worker registers it too.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class V6__MoveTestDataToStore extends BaseJavaMigration {
+    
+    private static final int UPDATE_BATCH = 100;
+    
+    private final TestDataStore testDataStore;
+    
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE test_cases ADD COLUMN input_hash VARCHAR(64)");
+            statement.execute("ALTER TABLE test_cases ADD COLUMN input_size BIGINT");
+            statement.execute("ALTER TABLE test_cases ADD COLUMN expected_output_hash VARCHAR(64)");
+            statement.execute("ALTER TABLE test_cases ADD COLUMN expected_output_size BIGINT");
+        }
+        
+        int moved = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, input, expected_output FROM test_cases");
+             PreparedStatement update = connection.prepareStatement("UPDATE test_cases SET input_hash = ?, "
+                     + "input_size = ?, expected_output_hash = ?, expected_output_size = ? WHERE id = ?")) {
+            while (rows.next()) {
+                TestDataStore.Blob input = testDataStore.put(rows.getString("input"));
+                TestDataStore.Blob expectedOutput = testDataStore.put(rows.getString("expected_output"));
+                update.setString(1, input.sha256());
+                update.setLong(2, input.size());
+                update.setString(3, expectedOutput.sha256());
+                update.setLong(4, expectedOutput.size());
+                update.setLong(5, rows.getLong("id"));
+                update.addBatch();
+                if (++moved % UPDATE_BATCH == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+        log.info("Moved the data of {} test cases to the test data store", moved);
+        
+        try (Statement statement = connection.createStatement()) {
+            for (String column : new String[]{"input_hash", "input_size", "expected_output_hash", "expected_output_size"}) {
+                statement.execute("ALTER TABLE test_cases ALTER COLUMN " + column + " SET NOT NULL");
+            }
+            statement.execute("ALTER TABLE test_cases DROP COLUMN input");
+            statement.execute("ALTER TABLE test_cases DROP COLUMN expected_output");
+        }
+    }
+}
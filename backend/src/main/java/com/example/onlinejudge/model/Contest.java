@@ -1,5 +1,6 @@
 package com.example.onlinejudge.model;
 
+import com.example.onlinejudge.service.ContestViewInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "contests")
+@EntityListeners(ContestViewInvalidator.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
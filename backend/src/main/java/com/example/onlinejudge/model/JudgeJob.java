@@ -0,0 +1,76 @@
+package com.example.onlinejudge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "judge_jobs", indexes = {
+        @Index(name = "idx_judge_jobs_status_sched_key", columnList = "status, schedKey"),
+        @Index(name = "idx_judge_jobs_submission", columnList = "submission_id"),
+        @Index(name = "idx_judge_jobs_completed_at", columnList = "completedAt"),
+        @Index(name = "idx_judge_jobs_username_status", columnList = "username, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "submission_id", nullable = false)
+    private Submission submission;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status = JobStatus.QUEUED;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Lane lane = Lane.PRACTICE;
+    
+    @Column(nullable = false)
+    private String username; // copied from the submission for per-user fair sharing
+    
+    @Column(nullable = false)
+    private long schedKey; // virtual start time in epoch millis; lowest is claimed first
+    
+    @Column(nullable = false)
+    private int attempts = 0; // claims so far, including the current one
+    
+    @Column
+    private String leaseOwner; // node id of the worker holding the job
+    
+    @Column
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime enqueuedAt;
+    
+    @Column
+    private LocalDateTime claimedAt;
+    
+    @Column
+    private LocalDateTime completedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (enqueuedAt == null) {
+            enqueuedAt = LocalDateTime.now();
+        }
+    }
+    
+    public enum JobStatus {
+        QUEUED, CLAIMED, DONE, FAILED
+    }
+    
+    public enum Lane {
+        LIVE, PRACTICE, REJUDGE
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.onlinejudge.model;
 
+import com.example.onlinejudge.checker.CompareMode;
+import com.example.onlinejudge.service.ContestViewInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "problems")
+@EntityListeners(ContestViewInvalidator.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +39,22 @@ public class Problem {
     @Column(nullable = false)
     private Integer memoryLimit; // in MB
     
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CompareMode compareMode = CompareMode.LINES;
+    
+    @Column
+    private Double floatAbsoluteError; // FLOAT mode only; null for the default
+    
+    @Column
+    private Double floatRelativeError;
+    
+    @Column(columnDefinition = "TEXT")
+    private String checkerSource; // special judge replacing the compare mode; null for none
+    
+    @Column
+    private String checkerLanguage;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contest_id", nullable = false)
     private Contest contest;
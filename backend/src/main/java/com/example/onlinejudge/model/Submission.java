@@ -4,11 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_contest_submitted", columnList = "contest_id, submittedAt, id"),
+        @Index(name = "idx_submissions_contest_user_submitted", columnList = "contest_id, username, submittedAt, id"),
+        @Index(name = "idx_submissions_contest_status_submitted", columnList = "contest_id, status, submittedAt"),
+        @Index(name = "idx_submissions_status_submitted", columnList = "status, submittedAt, id"),
+        @Index(name = "idx_submissions_problem", columnList = "problem_id"),
+        @Index(name = "idx_submissions_verdict_key", columnList = "verdictKey")
+})
+@DynamicUpdate // status changes must not rewrite the code column
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +63,10 @@ public class Submission {
     @Column(nullable = false)
     private String username;
     
+    // Set with a verdict that identical submissions may reuse; see VerdictCache
+    @Column(length = 64)
+    private String verdictKey;
+    
     @PrePersist
     protected void onCreate() {
         if (submittedAt == null) {
@@ -0,0 +1,47 @@
+package com.example.onlinejudge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome and measurements of one test case run of a submission. Only tests
+ * that actually ran have a row; a rejudge replaces them.
+ */
+@Entity
+@Table(name = "submission_test_results", indexes = {
+        @Index(name = "idx_submission_test_results_submission", columnList = "submission_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionTestResult {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "submission_id", nullable = false)
+    private Submission submission;
+    
+    @Column(nullable = false)
+    private int testNumber; // 1-based, in test case order
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Submission.SubmissionStatus status;
+    
+    @Column(nullable = false)
+    private int exitCode;
+    
+    @Column
+    private Integer wallTimeMs;
+    
+    @Column
+    private Integer cpuTimeMs; // user + system
+    
+    @Column
+    private Integer peakMemoryKb; // peak resident set size
+}
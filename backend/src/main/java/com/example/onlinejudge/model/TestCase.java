@@ -1,5 +1,6 @@
 package com.example.onlinejudge.model;
 
+import com.example.onlinejudge.service.ContestViewInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "test_cases")
+@EntityListeners(ContestViewInvalidator.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,11 +18,18 @@ public class TestCase {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(columnDefinition = "TEXT", nullable = false)
-    private String input;
+    // Content lives in the TestDataStore under these SHA-256 hashes; sizes in bytes
+    @Column(nullable = false, length = 64)
+    private String inputHash;
     
-    @Column(columnDefinition = "TEXT", nullable = false)
-    private String expectedOutput;
+    @Column(nullable = false)
+    private long inputSize;
+    
+    @Column(nullable = false, length = 64)
+    private String expectedOutputHash;
+    
+    @Column(nullable = false)
+    private long expectedOutputSize;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id", nullable = false)
@@ -0,0 +1,89 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.JudgeJob;
+import com.example.onlinejudge.model.JudgeJob.JobStatus;
+import com.example.onlinejudge.model.JudgeJob.Lane;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JudgeJobRepository extends JpaRepository<JudgeJob, Long> {
+    
+    @Query("SELECT j.id FROM JudgeJob j WHERE j.status = 'QUEUED' ORDER BY j.schedKey ASC, j.id ASC")
+    List<Long> findQueuedIds(Pageable pageable);
+    
+    @Query("SELECT MAX(j.schedKey) FROM JudgeJob j WHERE j.status = 'QUEUED' AND j.username = :username AND j.lane = :lane")
+    Long findMaxQueuedSchedKey(@Param("username") String username, @Param("lane") Lane lane);
+    
+    /**
+     * Jobs of the given lanes not yet judged, i.e. queued or being judged.
+     */
+    @Query("SELECT COUNT(j) FROM JudgeJob j WHERE j.status IN ('QUEUED', 'CLAIMED') AND j.lane IN :lanes")
+    long countOpenInLanes(@Param("lanes") Collection<Lane> lanes);
+    
+    @Query("SELECT COUNT(j) FROM JudgeJob j WHERE j.username = :username "
+            + "AND j.status IN ('QUEUED', 'CLAIMED') AND j.lane IN :lanes")
+    long countOpenInLanesByUsername(@Param("username") String username, @Param("lanes") Collection<Lane> lanes);
+    
+    @Query("SELECT j.submission.id FROM JudgeJob j WHERE j.status IN :statuses")
+    List<Long> findSubmissionIdsByStatusIn(@Param("statuses") Collection<JobStatus> statuses);
+    
+    @Query("SELECT j FROM JudgeJob j JOIN FETCH j.submission WHERE j.status = 'CLAIMED' AND j.leaseExpiresAt < :now")
+    List<JudgeJob> findExpiredLeases(@Param("now") LocalDateTime now);
+    
+    @Query("SELECT s.contest.id AS contestId, s.username AS username, MAX(j.completedAt) AS completedAt "
+            + "FROM JudgeJob j JOIN j.submission s WHERE j.completedAt > :since GROUP BY s.contest.id, s.username")
+    List<StandingChange> findStandingChangesSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Claims a queued job for a worker. Only one caller can win the update,
+     * so a return value of 1 means the job now belongs to {@code owner}.
+     */
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.status = 'CLAIMED', j.leaseOwner = :owner, j.leaseExpiresAt = :leaseExpiresAt, "
+            + "j.claimedAt = :now, j.attempts = j.attempts + 1 WHERE j.id = :id AND j.status = 'QUEUED'")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+    
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.leaseExpiresAt = :leaseExpiresAt "
+            + "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = 'CLAIMED'")
+    int extendLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                     @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+    
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.status = 'DONE', j.completedAt = :now, j.leaseExpiresAt = null "
+            + "WHERE j.id = :id AND j.leaseOwner = :owner AND j.status = 'CLAIMED'")
+    int complete(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+    
+    /**
+     * Puts a job whose lease ran out back on the queue. Conditional like
+     * {@link #claim}: if the lease was renewed or the job claimed again since
+     * it was read, nothing changes and 0 is returned.
+     */
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.status = 'QUEUED', j.leaseOwner = null, j.leaseExpiresAt = null "
+            + "WHERE j.id = :id AND j.status = 'CLAIMED' AND j.leaseExpiresAt < :now AND j.attempts = :attempts")
+    int requeueExpired(@Param("id") Long id, @Param("attempts") int attempts, @Param("now") LocalDateTime now);
+    
+    /**
+     * Gives up on a job whose lease ran out, under the same condition as
+     * {@link #requeueExpired}.
+     */
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.status = 'FAILED', j.completedAt = :now, j.leaseExpiresAt = null "
+            + "WHERE j.id = :id AND j.status = 'CLAIMED' AND j.leaseExpiresAt < :now AND j.attempts = :attempts")
+    int failExpired(@Param("id") Long id, @Param("attempts") int attempts, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE JudgeJob j SET j.leaseExpiresAt = :now WHERE j.leaseOwner = :owner AND j.status = 'CLAIMED'")
+    int expireLeasesOf(@Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,22 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     
     List<Problem> findByContestId(Long contestId);
     
+    @Query("SELECT p.id AS id, p.title AS title, p.description AS description, p.inputFormat AS inputFormat, "
+            + "p.outputFormat AS outputFormat, p.timeLimit AS timeLimit, p.memoryLimit AS memoryLimit, "
+            + "p.difficulty AS difficulty, "
+            + "(SELECT COUNT(t) FROM TestCase t WHERE t.problem = p AND t.isHidden = false) AS sampleCount "
+            + "FROM Problem p WHERE p.contest.id = :contestId ORDER BY p.id ASC")
+    List<ProblemSummary> findSummariesByContestId(@Param("contestId") Long contestId);
+    
+    /**
+     * Problems of active contests that have started or start before
+     * {@code startsBefore}, and have not ended.
+     */
+    @Query("SELECT p.id FROM Problem p WHERE p.contest.isActive = true "
+            + "AND p.contest.startTime <= :startsBefore AND p.contest.endTime > :now")
+    List<Long> findIdsOfLiveContests(@Param("now") LocalDateTime now,
+                                     @Param("startsBefore") LocalDateTime startsBefore);
+    
     @Query("SELECT p FROM Problem p LEFT JOIN FETCH p.testCases WHERE p.id = :id")
     Optional<Problem> findByIdWithTestCases(@Param("id") Long id);
     
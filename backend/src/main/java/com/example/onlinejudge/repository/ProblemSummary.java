@@ -0,0 +1,26 @@
+package com.example.onlinejudge.repository;
+
+/**
+ * Statement columns of a problem plus its number of sample tests, without
+ * touching the test data itself.
+ */
+public interface ProblemSummary {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    String getDescription();
+    
+    String getInputFormat();
+    
+    String getOutputFormat();
+    
+    Integer getTimeLimit();
+    
+    Integer getMemoryLimit();
+    
+    Integer getDifficulty();
+    
+    Long getSampleCount();
+}
@@ -0,0 +1,22 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+
+/**
+ * Verdict columns of a judged submission, to be copied onto an identical
+ * resubmission.
+ */
+public interface ReusableVerdict {
+    
+    Long getId();
+    
+    SubmissionStatus getStatus();
+    
+    String getResult();
+    
+    String getErrorMessage();
+    
+    Integer getExecutionTime();
+    
+    Integer getMemoryUsed();
+}
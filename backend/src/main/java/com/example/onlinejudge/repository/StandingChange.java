@@ -0,0 +1,15 @@
+package com.example.onlinejudge.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A contestant whose submissions got a verdict recently.
+ */
+public interface StandingChange {
+    
+    Long getContestId();
+    
+    String getUsername();
+    
+    LocalDateTime getCompletedAt();
+}
@@ -0,0 +1,20 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a submission that count towards the leaderboard, without
+ * its code or judge output.
+ */
+public interface SubmissionOutcome {
+    
+    String getUsername();
+    
+    Long getProblemId();
+    
+    SubmissionStatus getStatus();
+    
+    LocalDateTime getSubmittedAt();
+}
@@ -2,13 +2,18 @@ package com.example.onlinejudge.repository;
 
 import com.example.onlinejudge.model.Submission;
 import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
@@ -19,11 +24,104 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     
     List<Submission> findByUsername(String username);
     
-    List<Submission> findByContestIdAndUsername(Long contestId, String username);
+    /**
+     * Written out because the derived query outer-joins contests, which
+     * leaves only the username for idx_submissions_contest_user_submitted
+     * and scans the table.
+     */
+    @Query("SELECT s FROM Submission s WHERE s.contest.id = :contestId AND s.username = :username "
+            + "ORDER BY s.submittedAt ASC, s.id ASC")
+    List<Submission> findByContestIdAndUsername(@Param("contestId") Long contestId,
+                                                @Param("username") String username);
     
     @Query("SELECT s FROM Submission s WHERE s.status IN :statuses")
     List<Submission> findByStatusIn(@Param("statuses") List<SubmissionStatus> statuses);
     
+    @Query("SELECT s FROM Submission s WHERE s.contest.id = :contestId AND s.problem.id = :problemId "
+            + "AND s.status NOT IN ('PENDING', 'RUNNING') ORDER BY s.submittedAt ASC, s.id ASC")
+    List<Submission> findJudgedByContestAndProblem(@Param("contestId") Long contestId,
+                                                   @Param("problemId") Long problemId);
+    
+    /**
+     * One page of a contest's submissions, newest first, strictly before the
+     * (submittedAt, id) cursor. A null problemId matches all. For one user's
+     * submissions use {@link #findUserSummariesBefore}.
+     */
+    @Query("SELECT s.id AS id, s.language AS language, s.status AS status, s.result AS result, "
+            + "s.executionTime AS executionTime, s.memoryUsed AS memoryUsed, s.submittedAt AS submittedAt, "
+            + "s.problem.id AS problemId, s.contest.id AS contestId, s.username AS username "
+            + "FROM Submission s WHERE s.contest.id = :contestId "
+            + "AND (:problemId IS NULL OR s.problem.id = :problemId) "
+            + "AND s.status IN :statuses "
+            + "AND (s.submittedAt < :beforeTime OR (s.submittedAt = :beforeTime AND s.id < :beforeId)) "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionSummary> findSummariesBefore(@Param("contestId") Long contestId,
+                                                @Param("problemId") Long problemId,
+                                                @Param("statuses") Collection<SubmissionStatus> statuses,
+                                                @Param("beforeTime") LocalDateTime beforeTime,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+    
+    /**
+     * {@link #findSummariesBefore} for one user. A separate query because an
+     * optional username condition keeps the planner on the contest index,
+     * scanning every other user's rows; this one walks
+     * idx_submissions_contest_user_submitted.
+     */
+    @Query("SELECT s.id AS id, s.language AS language, s.status AS status, s.result AS result, "
+            + "s.executionTime AS executionTime, s.memoryUsed AS memoryUsed, s.submittedAt AS submittedAt, "
+            + "s.problem.id AS problemId, s.contest.id AS contestId, s.username AS username "
+            + "FROM Submission s WHERE s.contest.id = :contestId AND s.username = :username "
+            + "AND (:problemId IS NULL OR s.problem.id = :problemId) "
+            + "AND s.status IN :statuses "
+            + "AND (s.submittedAt < :beforeTime OR (s.submittedAt = :beforeTime AND s.id < :beforeId)) "
+            + "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionSummary> findUserSummariesBefore(@Param("contestId") Long contestId,
+                                                    @Param("username") String username,
+                                                    @Param("problemId") Long problemId,
+                                                    @Param("statuses") Collection<SubmissionStatus> statuses,
+                                                    @Param("beforeTime") LocalDateTime beforeTime,
+                                                    @Param("beforeId") Long beforeId,
+                                                    Pageable pageable);
+    
+    @Query("SELECT s.id AS id, s.status AS status, s.result AS result, s.errorMessage AS errorMessage "
+            + "FROM Submission s WHERE s.id IN :ids")
+    List<SubmissionState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Latest judged submission other than {@code excludedId} whose verdict
+     * was stored for reuse under this key.
+     */
+    @Query("SELECT s.id AS id, s.status AS status, s.result AS result, s.errorMessage AS errorMessage, "
+            + "s.executionTime AS executionTime, s.memoryUsed AS memoryUsed "
+            + "FROM Submission s WHERE s.verdictKey = :verdictKey AND s.id <> :excludedId "
+            + "AND s.status NOT IN ('PENDING', 'RUNNING') ORDER BY s.id DESC")
+    List<ReusableVerdict> findReusableVerdicts(@Param("verdictKey") String verdictKey,
+                                               @Param("excludedId") Long excludedId,
+                                               Pageable pageable);
+    
+    /**
+     * Writes a verdict without loading or rewriting the rest of the row.
+     */
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :status, s.result = :result, s.errorMessage = :errorMessage, "
+            + "s.executionTime = :executionTime, s.memoryUsed = :memoryUsed, s.verdictKey = :verdictKey "
+            + "WHERE s.id = :id")
+    int updateVerdict(@Param("id") Long id, @Param("status") SubmissionStatus status,
+                      @Param("result") String result, @Param("errorMessage") String errorMessage,
+                      @Param("executionTime") Integer executionTime, @Param("memoryUsed") Integer memoryUsed,
+                      @Param("verdictKey") String verdictKey);
+    
+    @Query("SELECT s.username AS username, s.problem.id AS problemId, s.status AS status, s.submittedAt AS submittedAt "
+            + "FROM Submission s WHERE s.contest.id = :contestId ORDER BY s.submittedAt ASC, s.id ASC")
+    Stream<SubmissionOutcome> streamOutcomesByContest(@Param("contestId") Long contestId);
+    
+    @Query("SELECT s.username AS username, s.problem.id AS problemId, s.status AS status, s.submittedAt AS submittedAt "
+            + "FROM Submission s WHERE s.contest.id = :contestId AND s.username = :username "
+            + "ORDER BY s.submittedAt ASC, s.id ASC")
+    List<SubmissionOutcome> findOutcomesByContestAndUsername(@Param("contestId") Long contestId,
+                                                             @Param("username") String username);
+    
     @Query("SELECT s FROM Submission s WHERE s.contest.id = :contestId AND s.status = 'ACCEPTED' ORDER BY s.submittedAt ASC")
     List<Submission> findAcceptedSubmissionsByContest(@Param("contestId") Long contestId);
     
@@ -0,0 +1,18 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+
+/**
+ * Status columns of a submission, for status checks that do not need the
+ * code.
+ */
+public interface SubmissionState {
+    
+    Long getId();
+    
+    SubmissionStatus getStatus();
+    
+    String getResult();
+    
+    String getErrorMessage();
+}
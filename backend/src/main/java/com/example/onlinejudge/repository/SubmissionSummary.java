@@ -0,0 +1,32 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submission as shown in listings: everything but the code and the judge
+ * output, which only the single-submission endpoint returns.
+ */
+public interface SubmissionSummary {
+    
+    Long getId();
+    
+    String getLanguage();
+    
+    SubmissionStatus getStatus();
+    
+    String getResult();
+    
+    Integer getExecutionTime();
+    
+    Integer getMemoryUsed();
+    
+    LocalDateTime getSubmittedAt();
+    
+    Long getProblemId();
+    
+    Long getContestId();
+    
+    String getUsername();
+}
@@ -0,0 +1,20 @@
+package com.example.onlinejudge.repository;
+
+import com.example.onlinejudge.model.SubmissionTestResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionTestResultRepository extends JpaRepository<SubmissionTestResult, Long> {
+    
+    List<SubmissionTestResult> findBySubmissionIdOrderByTestNumberAsc(Long submissionId);
+    
+    @Modifying
+    @Query("DELETE FROM SubmissionTestResult r WHERE r.submission.id = :submissionId")
+    int deleteBySubmissionId(@Param("submissionId") Long submissionId);
+}
@@ -1,7 +1,11 @@
 package com.example.onlinejudge.repository;
 
 import com.example.onlinejudge.model.TestCase;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +16,20 @@ public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
     List<TestCase> findByProblemId(Long problemId);
     
     List<TestCase> findByProblemIdAndIsHiddenFalse(Long problemId);
+    
+    @Query("SELECT t FROM TestCase t WHERE t.problem.id = :problemId AND t.isHidden = false ORDER BY t.id ASC")
+    Page<TestCase> findSamplesByProblemId(@Param("problemId") Long problemId, Pageable pageable);
+    
+    /**
+     * The first {@code perProblem} samples of at most {@code maxBytes} input
+     * plus output of every problem in a contest, in one query.
+     */
+    @Query("SELECT t FROM TestCase t WHERE t.problem.contest.id = :contestId AND t.isHidden = false "
+            + "AND t.inputSize + t.expectedOutputSize <= :maxBytes "
+            + "AND (SELECT COUNT(o) FROM TestCase o WHERE o.problem = t.problem AND o.isHidden = false "
+            + "AND o.inputSize + o.expectedOutputSize <= :maxBytes AND o.id < t.id) < :perProblem "
+            + "ORDER BY t.problem.id ASC, t.id ASC")
+    List<TestCase> findInlineSamplesByContestId(@Param("contestId") Long contestId,
+                                                @Param("perProblem") long perProblem,
+                                                @Param("maxBytes") long maxBytes);
 }
@@ -0,0 +1,41 @@
+package com.example.onlinejudge.sandbox;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared stop signal for the sandbox sessions judging one submission. Sessions
+ * check it before every run and register a callback to abort the run that is
+ * in progress when it fires.
+ */
+public class CancellationToken {
+    
+    public static final CancellationToken NONE = new CancellationToken();
+    
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    public void cancel() {
+        if (this == NONE || cancelled) {
+            return;
+        }
+        cancelled = true;
+        callbacks.forEach(Runnable::run);
+    }
+    
+    /**
+     * Registers a callback that runs on cancellation, immediately if the token
+     * is already cancelled. Returns a handle that unregisters it.
+     */
+    public Runnable onCancel(Runnable callback) {
+        callbacks.add(callback);
+        if (cancelled) {
+            callback.run();
+        }
+        return () -> callbacks.remove(callback);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompileResult {
+    private boolean success;
+    private String output; // compiler output, truncated
+    private boolean timedOut; // stopped by the compile timeout, not rejected by the compiler
+}
@@ -0,0 +1,323 @@
+package com.example.onlinejudge.sandbox;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.service.TestDataStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out judge containers to {@link DockerSandbox}. When pooling is enabled
+ * a few paused containers are kept per language so a submission can start
+ * running as soon as it is picked up; otherwise (or when the pool is empty) a
+ * container is cold-started. Every container owns a host directory mounted at
+ * /workspace; the judge writes the submission straight into it and runs
+ * commands through {@code docker exec}. Test data is mounted read-only at its
+ * host path, where the symlinks to it in the workspace point. Containers are
+ * wiped after each use and thrown away after too many uses, when they sit
+ * idle for too long, or when a run had to be killed.
+ * <p>
+ * A container judges submissions of different users one after another, so
+ * nothing a submission does may outlive it. Containers run as an
+ * unprivileged user with no capabilities, a read-only root filesystem and a
+ * process limit; the only writable places are the workspace and an
+ * in-memory /tmp, and both are emptied before the container is reused.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.sandbox", havingValue = "docker", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DockerContainerPool {
+    
+    private static final String POOL_LABEL = "onlinejudge.pool";
+    private static final String OWNER_LABEL = "onlinejudge.pool.owner";
+    private static final long DOCKER_COMMAND_TIMEOUT_SECONDS = 30;
+    
+    private final JudgeProperties judgeProperties;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+    private final TestDataStore testDataStore;
+    
+    private final Map<String, ConcurrentLinkedDeque<PooledContainer>> idleContainers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misses = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void start() {
+        JudgeProperties.Pool pool = judgeProperties.getPool();
+        if (!pool.isEnabled()) {
+            return;
+        }
+        
+        removeStaleContainers();
+        for (String language : pool.getSize().keySet()) {
+            ConcurrentLinkedDeque<PooledContainer> containers = idle(language);
+            Gauge.builder("judge.pool.idle", containers, ConcurrentLinkedDeque::size)
+                    .description("Paused judge containers ready to be handed out")
+                    .tag("language", language)
+                    .register(meterRegistry);
+        }
+        taskScheduler.scheduleWithFixedDelay(this::refill, pool.getRefillInterval());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        idleContainers.values().forEach(containers -> {
+            PooledContainer container;
+            while ((container = containers.poll()) != null) {
+                destroy(container);
+            }
+        });
+    }
+    
+    /**
+     * Hands out a running container limited to the given memory: a warm one
+     * from the pool when available, a freshly started one otherwise.
+     */
+    public PooledContainer acquire(String language, int memoryLimitMb) {
+        String key = language.toLowerCase();
+        PooledContainer container;
+        while (judgeProperties.getPool().isEnabled() && (container = idle(key).poll()) != null) {
+            boolean ready = docker("update", "--memory=" + memoryLimitMb + "m",
+                    "--memory-swap=" + memoryLimitMb + "m", container.getName())
+                    && docker("unpause", container.getName());
+            if (ready) {
+                container.uses++;
+                counter(hits, key, "hit").increment();
+                return container;
+            }
+            log.warn("Discarding pooled container {} that could not be resumed", container.getName());
+            destroy(container);
+        }
+        
+        if (judgeProperties.getPool().isEnabled()) {
+            counter(misses, key, "miss").increment();
+        }
+        container = create(key, memoryLimitMb, false);
+        if (container == null) {
+            throw new RuntimeException("Could not start judge container");
+        }
+        container.uses++;
+        return container;
+    }
+    
+    public ProcessBuilder exec(PooledContainer container, String command) {
+        return new ProcessBuilder("docker", "exec", container.getName(), "sh", "-c", command);
+    }
+    
+    /**
+     * Kills everything running in the container except its idle init process.
+     */
+    public void killProcesses(PooledContainer container) {
+        docker("exec", container.getName(), "sh", "-c", "kill -9 -1 2> /dev/null; true");
+    }
+    
+    /**
+     * Returns a container after use. Healthy containers are reset (leftover
+     * processes killed, workspace, /tmp and /dev/shm wiped) and paused again
+     * if their pool has room; broken or worn-out ones, and any whose
+     * workspace could not be emptied, are removed and replaced on the next
+     * refill.
+     */
+    public void release(PooledContainer container) {
+        JudgeProperties.Pool pool = judgeProperties.getPool();
+        boolean reusable = pool.isEnabled()
+                && !container.isBroken()
+                && container.uses < pool.getMaxUses()
+                && idle(container.getLanguage()).size() < pool.getSize().getOrDefault(container.getLanguage(), 0)
+                && docker("exec", container.getName(), "sh", "-c",
+                        "kill -9 -1 2> /dev/null; rm -rf /workspace/* /workspace/.[!.]* /tmp/* /tmp/.[!.]* "
+                                + "/dev/shm/* 2> /dev/null; true")
+                // The judge's own files are not the sandbox user's to delete
+                && SandboxFiles.clearDirectory(container.getWorkspace())
+                && docker("pause", container.getName());
+        
+        if (reusable) {
+            container.idleSince = Instant.now();
+            idle(container.getLanguage()).offer(container);
+        } else {
+            destroy(container);
+        }
+    }
+    
+    /**
+     * Tops every language up to its configured size and recycles containers
+     * that have been idle longer than the configured maximum.
+     */
+    void refill() {
+        JudgeProperties.Pool pool = judgeProperties.getPool();
+        Instant idleCutoff = Instant.now().minus(pool.getMaxIdle());
+        
+        pool.getSize().forEach((language, size) -> {
+            ConcurrentLinkedDeque<PooledContainer> containers = idle(language);
+            List<PooledContainer> stale = containers.stream()
+                    .filter(container -> container.idleSince.isBefore(idleCutoff))
+                    .toList();
+            for (PooledContainer container : stale) {
+                // acquire() may have taken it meanwhile; only whoever unlinks it may destroy it
+                if (containers.remove(container)) {
+                    destroy(container);
+                }
+            }
+            
+            int missing = Math.min(size - containers.size(), pool.getRefillBatchSize());
+            for (int i = 0; i < missing; i++) {
+                PooledContainer container = create(language, pool.getMemoryLimitMb(), true);
+                if (container == null) {
+                    break;
+                }
+                containers.offer(container);
+            }
+        });
+    }
+    
+    private PooledContainer create(String language, int memoryLimitMb, boolean paused) {
+        JudgeProperties.Pool pool = judgeProperties.getPool();
+        String name = "oj-" + language + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Path workspace = Paths.get(pool.getWorkspaceRoot(), name);
+        
+        try {
+            Files.createDirectories(workspace);
+            SandboxFiles.makeWritable(workspace);
+        } catch (IOException e) {
+            log.error("Could not create pool workspace {}: {}", workspace, e.getMessage());
+            return null;
+        }
+        
+        boolean started = docker("run", "-d",
+                "--name=" + name,
+                "--label=" + POOL_LABEL + "=" + language,
+                "--label=" + OWNER_LABEL + "=" + owner(),
+                "--memory=" + memoryLimitMb + "m",
+                "--memory-swap=" + memoryLimitMb + "m",
+                "--cpus=1",
+                "--network=none",
+                "--user=" + pool.getUser(),
+                "--cap-drop=ALL",
+                "--security-opt=no-new-privileges",
+                "--pids-limit=" + pool.getPidsLimit(),
+                "--read-only",
+                "--tmpfs=/tmp:rw,nosuid,nodev,size=" + pool.getTmpSizeMb() + "m",
+                "-e", "HOME=/tmp",
+                "-v", workspace + ":/workspace",
+                "-v", testDataStore.getPlainDir() + ":" + testDataStore.getPlainDir() + ":ro",
+                "-w", "/workspace",
+                judgeProperties.getImage(),
+                "sleep", "infinity")
+                && (!paused || docker("pause", name));
+        
+        PooledContainer container = new PooledContainer(name, language, workspace);
+        if (!started) {
+            destroy(container);
+            return null;
+        }
+        return container;
+    }
+    
+    private void destroy(PooledContainer container) {
+        docker("rm", "-f", container.getName());
+        SandboxFiles.deleteRecursively(container.getWorkspace());
+    }
+    
+    private void removeStaleContainers() {
+        try {
+            // Only our own leftovers: other judge nodes may share this Docker host
+            Process process = new ProcessBuilder("docker", "ps", "-aq",
+                    "--filter", "label=" + POOL_LABEL, "--filter", "label=" + OWNER_LABEL + "=" + owner())
+                    .redirectErrorStream(true)
+                    .start();
+            String ids = new String(process.getInputStream().readAllBytes()).trim();
+            process.waitFor(DOCKER_COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            for (String id : ids.split("\\s+")) {
+                if (!id.isEmpty()) {
+                    docker("rm", "-f", id);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not remove stale pool containers: {}", e.getMessage());
+        }
+    }
+    
+    private String owner() {
+        String nodeId = judgeProperties.getQueue().getNodeId();
+        return StringUtils.hasText(nodeId) ? nodeId : "default";
+    }
+    
+    private boolean docker(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = "docker";
+        System.arraycopy(args, 0, command, 1, args.length);
+        
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!process.waitFor(DOCKER_COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (Exception e) {
+            log.warn("docker {} failed: {}", args[0], e.getMessage());
+            return false;
+        }
+    }
+    
+    private ConcurrentLinkedDeque<PooledContainer> idle(String language) {
+        return idleContainers.computeIfAbsent(language, k -> new ConcurrentLinkedDeque<>());
+    }
+    
+    private Counter counter(Map<String, Counter> counters, String language, String result) {
+        return counters.computeIfAbsent(language, k -> Counter.builder("judge.pool.acquire")
+                .description("Sandbox requests served from the warm pool (hit) or cold-started (miss)")
+                .tag("language", language)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+    
+    @Getter
+    public static class PooledContainer {
+        private final String name;
+        private final String language;
+        private final Path workspace;
+        // Handed between judge threads and the refill scheduler through the idle deques
+        private volatile Instant idleSince = Instant.now();
+        private volatile int uses; // only incremented by the thread that acquired the container
+        private volatile boolean broken;
+        
+        PooledContainer(String name, String language, Path workspace) {
+            this.name = name;
+            this.language = language;
+            this.workspace = workspace;
+        }
+        
+        /**
+         * Marks the container as unfit for reuse, e.g. after a run was killed.
+         */
+        public void markBroken() {
+            this.broken = true;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.onlinejudge.sandbox;
+
+import com.example.onlinejudge.sandbox.DockerContainerPool.PooledContainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs submissions inside onlinejudge-judge containers handed out by
+ * {@link DockerContainerPool}. Compilation and test runs are {@code docker exec}
+ * calls into the same container; all runs of one {@link #run} call execute
+ * from a single generated script so the container is entered only once.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.sandbox", havingValue = "docker", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DockerSandbox implements Sandbox {
+    
+    private static final int TIMEOUT_EXIT_CODE = 124; // exit status of coreutils timeout
+    private static final long PROGRESS_POLL_MS = 200;
+    
+    private final DockerContainerPool containerPool;
+    
+    @Override
+    public SandboxSession open(Language language, SandboxLimits limits) {
+        PooledContainer container = containerPool.acquire(language.name(), limits.getMemoryLimitMb());
+        return new DockerSession(container, language, limits);
+    }
+    
+    @RequiredArgsConstructor
+    private class DockerSession implements SandboxSession {
+        
+        private final PooledContainer container;
+        private final Language language;
+        private final SandboxLimits limits;
+        
+        @Override
+        public Path getWorkspace() {
+            return container.getWorkspace();
+        }
+        
+        @Override
+        public Language getLanguage() {
+            return language;
+        }
+        
+        @Override
+        public SandboxLimits getLimits() {
+            return limits;
+        }
+        
+        @Override
+        public CompileResult compile() throws IOException, InterruptedException {
+            if (!language.needsCompilation()) {
+                return new CompileResult(true, null, false);
+            }
+            
+            String command = "timeout " + limits.getCompileTimeoutSeconds() + " "
+                    + language.getCompileCommand() + " > compile.log 2>&1";
+            Process process = containerPool.exec(container, command).start();
+            
+            if (!process.waitFor(limits.getCompileTimeoutSeconds() + 5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                container.markBroken();
+                return new CompileResult(false, "Compilation timed out after "
+                        + limits.getCompileTimeoutSeconds() + "s", true);
+            }
+            
+            int exitCode = process.exitValue();
+            String output = SandboxFiles.readLog(getWorkspace().resolve("compile.log"));
+            boolean timedOut = exitCode == TIMEOUT_EXIT_CODE;
+            if (timedOut) {
+                output = "Compilation timed out after " + limits.getCompileTimeoutSeconds() + "s";
+            }
+            return new CompileResult(exitCode == 0, output, timedOut);
+        }
+        
+        /**
+         * Writes a script that runs every request under its own timeout and
+         * GNU time, leaving {@code <output>.stats} and {@code <output>.exit}
+         * next to each output file, then executes it with one docker exec.
+         * Time and memory are thus measured inside the container, per test,
+         * without container startup or docker CLI overhead. Exit files are
+         * picked up while the script runs, so the listener hears about every
+         * run as it finishes.
+         * Cancelling kills every process in the container, which ends the
+         * script without an exit file for the run in progress.
+         */
+        @Override
+        public List<RunResult> run(List<RunRequest> runs, CancellationToken cancellation, RunListener listener)
+                throws IOException, InterruptedException {
+            List<RunResult> results = new ArrayList<>();
+            if (cancellation.isCancelled()) {
+                return results;
+            }
+            
+            StringBuilder script = new StringBuilder();
+            for (RunRequest run : runs) {
+                // Outputs are written by the container's unprivileged user
+                SandboxFiles.makeWritable(getWorkspace().resolve(run.getOutputFile()).getParent());
+                script.append(SandboxFiles.timed(statsFile(run)))
+                        .append("timeout -k 1 ").append(limits.getTimeLimitSeconds()).append(' ')
+                        .append(language.getRunCommand())
+                        .append(" < ").append(run.getInputFile())
+                        .append(" > ").append(run.getOutputFile()).append(" 2> /dev/null\n")
+                        .append("code=$?\n")
+                        .append("echo $code > ").append(exitFile(run)).append('\n')
+                        .append("[ $code -eq 0 ] || exit 0\n");
+            }
+            Files.writeString(getWorkspace().resolve("run.sh"), script);
+            
+            // Upper bound for the whole script: every run at its limit
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos((long) runs.size() * (limits.getTimeLimitSeconds() + 1) + 5);
+            Process process = containerPool.exec(container, "sh run.sh").start();
+            Runnable unregister = cancellation.onCancel(() -> containerPool.killProcesses(container));
+            
+            try {
+                while (!process.waitFor(PROGRESS_POLL_MS, TimeUnit.MILLISECONDS)) {
+                    collectFinished(runs, results, listener);
+                    if (System.nanoTime() > deadline) {
+                        process.destroyForcibly();
+                        container.markBroken();
+                        break;
+                    }
+                }
+            } finally {
+                unregister.run();
+            }
+            
+            collectFinished(runs, results, listener);
+            if (results.size() < runs.size() && container.isBroken() && !cancellation.isCancelled()) {
+                // Script was killed while this run was in progress
+                RunResult result = new RunResult(runs.get(results.size()).getName(), -1, true);
+                results.add(result);
+                listener.runFinished(result);
+            }
+            return results;
+        }
+        
+        /**
+         * Adds results for runs whose exit file has appeared since the last
+         * call. The script writes exit files in order, so the first missing one
+         * ends the scan.
+         */
+        private void collectFinished(List<RunRequest> runs, List<RunResult> results, RunListener listener)
+                throws IOException {
+            while (results.size() < runs.size()) {
+                RunRequest run = runs.get(results.size());
+                Path exitFile = getWorkspace().resolve(exitFile(run));
+                if (!Files.exists(exitFile)) {
+                    return;
+                }
+                Integer exitCode = SandboxFiles.readExitCode(exitFile);
+                if (exitCode == null) {
+                    return; // being written right now
+                }
+                RunResult result = new RunResult(run.getName(), exitCode, exitCode == TIMEOUT_EXIT_CODE);
+                SandboxFiles.readStats(getWorkspace().resolve(statsFile(run)), result);
+                results.add(result);
+                listener.runFinished(result);
+            }
+        }
+        
+        @Override
+        public void close() {
+            containerPool.release(container);
+        }
+        
+        private String exitFile(RunRequest run) {
+            return run.getOutputFile() + ".exit";
+        }
+        
+        private String statsFile(RunRequest run) {
+            return run.getOutputFile() + ".stats";
+        }
+    }
+}
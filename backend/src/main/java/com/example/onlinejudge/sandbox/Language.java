@@ -0,0 +1,38 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Languages the judge can build and run. Commands are executed from the
+ * workspace directory by every sandbox backend.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Language {
+    JAVA("Solution.java", "javac Solution.java", "java Solution", true),
+    PYTHON("solution.py", null, "python3 solution.py", false),
+    CPP("solution.cpp", "g++ -o main solution.cpp", "./main", false);
+    
+    private final String sourceFile;
+    private final String compileCommand; // null when the language runs straight from source
+    private final String runCommand;
+    private final boolean jvm; // manages its own heap, so address-space limits do not apply
+    
+    public boolean needsCompilation() {
+        return compileCommand != null;
+    }
+    
+    public static Language fromName(String name) {
+        switch (name.toLowerCase()) {
+            case "java":
+                return JAVA;
+            case "python":
+                return PYTHON;
+            case "cpp":
+                return CPP;
+            default:
+                throw new RuntimeException("Unsupported language: " + name);
+        }
+    }
+}
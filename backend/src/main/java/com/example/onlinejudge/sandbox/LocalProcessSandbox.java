@@ -0,0 +1,167 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs submissions as plain child processes of the judge. Limits come from
+ * shell rlimits (CPU seconds, address space, output file size) plus a wall
+ * clock timeout enforced here; JVM submissions get their heap capped through
+ * JAVA_TOOL_OPTIONS instead of an address-space limit. Time and peak memory
+ * are measured with GNU time when the host has it. There is no
+ * filesystem or network isolation, so this backend is only meant for
+ * trusted traffic and for benchmarking the judge on machines without Docker.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.sandbox", havingValue = "local")
+@Slf4j
+public class LocalProcessSandbox implements Sandbox {
+    
+    private static final long MAX_OUTPUT_BLOCKS = 512 * 1024; // ulimit -f counts 512-byte blocks: 256 MB
+    private static final int SIGXCPU_EXIT_CODE = 128 + 24;
+    private static final boolean TIME_AVAILABLE = Files.isExecutable(Path.of(SandboxFiles.TIME_BINARY));
+    
+    @Override
+    public SandboxSession open(Language language, SandboxLimits limits) throws IOException {
+        return new LocalSession(Files.createTempDirectory("judge_"), language, limits);
+    }
+    
+    @RequiredArgsConstructor
+    private static class LocalSession implements SandboxSession {
+        
+        private final Path workspace;
+        private final Language language;
+        private final SandboxLimits limits;
+        
+        @Override
+        public Path getWorkspace() {
+            return workspace;
+        }
+        
+        @Override
+        public Language getLanguage() {
+            return language;
+        }
+        
+        @Override
+        public SandboxLimits getLimits() {
+            return limits;
+        }
+        
+        @Override
+        public CompileResult compile() throws IOException, InterruptedException {
+            if (!language.needsCompilation()) {
+                return new CompileResult(true, null, false);
+            }
+            
+            Path compileLog = workspace.resolve("compile.log");
+            Process process = new ProcessBuilder("sh", "-c", language.getCompileCommand())
+                    .directory(workspace.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(compileLog.toFile())
+                    .start();
+            
+            if (!process.waitFor(limits.getCompileTimeoutSeconds(), TimeUnit.SECONDS)) {
+                destroyTree(process);
+                return new CompileResult(false, "Compilation timed out after "
+                        + limits.getCompileTimeoutSeconds() + "s", true);
+            }
+            return new CompileResult(process.exitValue() == 0, SandboxFiles.readLog(compileLog), false);
+        }
+        
+        @Override
+        public List<RunResult> run(List<RunRequest> runs, CancellationToken cancellation, RunListener listener)
+                throws IOException, InterruptedException {
+            List<RunResult> results = new ArrayList<>();
+            for (RunRequest run : runs) {
+                if (cancellation.isCancelled()) {
+                    break;
+                }
+                RunResult result = runOnce(run, cancellation);
+                if (result == null) {
+                    break; // cancelled while running
+                }
+                results.add(result);
+                listener.runFinished(result);
+                if (result.isTimedOut() || result.getExitCode() != 0) {
+                    break;
+                }
+            }
+            return results;
+        }
+        
+        private RunResult runOnce(RunRequest run, CancellationToken cancellation)
+                throws IOException, InterruptedException {
+            String statsFile = run.getOutputFile() + ".stats";
+            String timed = TIME_AVAILABLE ? SandboxFiles.timed(statsFile) : "";
+            ProcessBuilder pb = new ProcessBuilder("sh", "-c", limitPrefix() + "exec " + timed + language.getRunCommand())
+                    .directory(workspace.toFile())
+                    .redirectInput(workspace.resolve(run.getInputFile()).toFile())
+                    .redirectOutput(workspace.resolve(run.getOutputFile()).toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD);
+            if (language.isJvm()) {
+                pb.environment().put("JAVA_TOOL_OPTIONS", "-Xmx" + limits.getMemoryLimitMb() + "m");
+            }
+            
+            long started = System.nanoTime();
+            Process process = pb.start();
+            Runnable unregister = cancellation.onCancel(() -> destroyTree(process));
+            try {
+                if (!process.waitFor(limits.getTimeLimitSeconds(), TimeUnit.SECONDS)) {
+                    destroyTree(process);
+                    return cancellation.isCancelled() ? null : new RunResult(run.getName(), -1, true);
+                }
+            } finally {
+                unregister.run();
+            }
+            
+            if (cancellation.isCancelled()) {
+                return null;
+            }
+            
+            int exitCode = process.exitValue();
+            RunResult result = new RunResult(run.getName(), exitCode, exitCode == SIGXCPU_EXIT_CODE);
+            if (TIME_AVAILABLE) {
+                SandboxFiles.readStats(workspace.resolve(statsFile), result);
+            } else {
+                // Without GNU time only the wall clock is known, including process startup
+                result.setWallTimeMs((int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            return result;
+        }
+        
+        /**
+         * rlimits applied by the shell before it execs the program: CPU time
+         * slightly above the wall limit as a backstop, address space for
+         * native programs, and a cap on output size.
+         */
+        private String limitPrefix() {
+            StringBuilder prefix = new StringBuilder();
+            prefix.append("ulimit -t ").append(limits.getTimeLimitSeconds() + 1).append("; ");
+            if (!language.isJvm()) {
+                prefix.append("ulimit -v ").append(limits.getMemoryLimitMb() * 1024L).append("; ");
+            }
+            prefix.append("ulimit -f ").append(MAX_OUTPUT_BLOCKS).append("; ");
+            return prefix.toString();
+        }
+        
+        private void destroyTree(Process process) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+        
+        @Override
+        public void close() {
+            SandboxFiles.deleteRecursively(workspace);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.onlinejudge.sandbox;
+
+/**
+ * Told about each run as soon as the sandbox knows its result, which for
+ * batched runs is before the whole batch has returned.
+ */
+@FunctionalInterface
+public interface RunListener {
+    
+    RunListener NONE = result -> { };
+    
+    void runFinished(RunResult result);
+}
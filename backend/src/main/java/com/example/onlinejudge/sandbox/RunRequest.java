@@ -0,0 +1,18 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One execution of the compiled program. File names are relative to the
+ * session workspace.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunRequest {
+    private String name;
+    private String inputFile;
+    private String outputFile;
+}
@@ -0,0 +1,22 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunResult {
+    private String name;
+    private int exitCode;
+    private boolean timedOut;
+    // Measured inside the sandbox; null when the run was killed before it could report
+    private Integer wallTimeMs;
+    private Integer cpuTimeMs; // user + system
+    private Integer peakMemoryKb; // peak resident set size
+    
+    public RunResult(String name, int exitCode, boolean timedOut) {
+        this(name, exitCode, timedOut, null, null, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.onlinejudge.sandbox;
+
+import java.io.IOException;
+
+/**
+ * Isolated environment the judge builds and runs submissions in. The backend
+ * is picked with {@code judge.sandbox}: {@code docker} (default) runs every
+ * submission in its own container, {@code local} runs plain processes under
+ * rlimits and a timeout for machines without Docker.
+ */
+public interface Sandbox {
+    
+    /**
+     * Opens an empty workspace for one submission. The caller writes the
+     * source file and test inputs into {@link SandboxSession#getWorkspace()}.
+     */
+    SandboxSession open(Language language, SandboxLimits limits) throws IOException;
+}
@@ -0,0 +1,155 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * File helpers shared by the sandbox backends.
+ */
+@Slf4j
+public final class SandboxFiles {
+    
+    private static final int MAX_LOG_CHARS = 8192;
+    static final String TIME_BINARY = "/usr/bin/time";
+    
+    private SandboxFiles() {
+    }
+    
+    static String readLog(Path logFile) throws IOException {
+        if (!Files.exists(logFile)) {
+            return null;
+        }
+        String output = Files.readString(logFile);
+        if (output.length() > MAX_LOG_CHARS) {
+            output = output.substring(0, MAX_LOG_CHARS) + "\n... (truncated)";
+        }
+        return output;
+    }
+    
+    /**
+     * Exit code recorded in {@code exitFile}, or null while the file is still
+     * empty because its writer has not finished.
+     */
+    static Integer readExitCode(Path exitFile) throws IOException {
+        String content = Files.readString(exitFile).trim();
+        if (content.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(content);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Prefix that runs a command under GNU time, which writes wall seconds,
+     * user and system CPU seconds and peak RSS in KB to {@code statsFile}.
+     * The figures cover the command and every process it waited for.
+     */
+    static String timed(String statsFile) {
+        return TIME_BINARY + " -f '%e %U %S %M' -o " + statsFile + " ";
+    }
+    
+    /**
+     * Adds the figures written by a {@link #timed} prefix to {@code result}.
+     * GNU time puts a "Command exited with non-zero status" line before them
+     * when the command failed, so only the last line is read. A missing or
+     * unreadable file leaves the result unmeasured.
+     */
+    static void readStats(Path statsFile, RunResult result) throws IOException {
+        if (!Files.exists(statsFile)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(statsFile);
+        if (lines.isEmpty()) {
+            return;
+        }
+        String[] fields = lines.get(lines.size() - 1).trim().split("\\s+");
+        if (fields.length != 4) {
+            return;
+        }
+        try {
+            int wallTimeMs = toMillis(fields[0]);
+            int cpuTimeMs = toMillis(fields[1]) + toMillis(fields[2]);
+            int peakMemoryKb = Integer.parseInt(fields[3]);
+            result.setWallTimeMs(wallTimeMs);
+            result.setCpuTimeMs(cpuTimeMs);
+            result.setPeakMemoryKb(peakMemoryKb);
+        } catch (NumberFormatException e) {
+            log.debug("Unreadable run statistics in {}: {}", statsFile, lines);
+        }
+    }
+    
+    private static int toMillis(String seconds) {
+        return (int) Math.round(Double.parseDouble(seconds) * 1000);
+    }
+    
+    /**
+     * Copies a directory tree into {@code target}, keeping permissions, so a
+     * build can be reused in another workspace without compiling again.
+     */
+    public static void copyDirectory(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path destination = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Lets a sandbox running as another user create files in a directory
+     * the judge made.
+     */
+    static void makeWritable(Path directory) throws IOException {
+        try {
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+        } catch (UnsupportedOperationException e) {
+            directory.toFile().setWritable(true, false);
+        }
+    }
+    
+    /**
+     * Deletes everything inside {@code directory} and tells whether it is
+     * empty afterwards.
+     */
+    static boolean clearDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .filter(path -> !path.equals(directory))
+                    .forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            return false;
+        }
+        try (Stream<Path> children = Files.list(directory)) {
+            return children.findAny().isEmpty();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Could not clean up workspace {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.onlinejudge.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SandboxLimits {
+    private int timeLimitSeconds; // per test case
+    private int memoryLimitMb;
+    private long compileTimeoutSeconds;
+}
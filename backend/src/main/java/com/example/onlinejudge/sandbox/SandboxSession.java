@@ -0,0 +1,49 @@
+package com.example.onlinejudge.sandbox;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A workspace plus the isolation around it, used for one submission. The
+ * program is compiled once and every run reuses the artifact.
+ */
+public interface SandboxSession extends AutoCloseable {
+    
+    Path getWorkspace();
+    
+    Language getLanguage();
+    
+    SandboxLimits getLimits();
+    
+    /**
+     * Builds the source file in the workspace. Languages without a build step
+     * always succeed.
+     */
+    CompileResult compile() throws IOException, InterruptedException;
+    
+    /**
+     * Runs the compiled program once per request, in order, each under the
+     * session's time and memory limits. Stops after the first run that crashes
+     * or times out, or as soon as the token is cancelled, so the result list
+     * may be shorter than the request list. {@code listener} hears about each
+     * result as it becomes available.
+     */
+    List<RunResult> run(List<RunRequest> runs, CancellationToken cancellation, RunListener listener)
+            throws IOException, InterruptedException;
+    
+    default List<RunResult> run(List<RunRequest> runs, CancellationToken cancellation)
+            throws IOException, InterruptedException {
+        return run(runs, cancellation, RunListener.NONE);
+    }
+    
+    default List<RunResult> run(List<RunRequest> runs) throws IOException, InterruptedException {
+        return run(runs, CancellationToken.NONE);
+    }
+    
+    /**
+     * Releases the workspace and any processes or containers behind it.
+     */
+    @Override
+    void close();
+}
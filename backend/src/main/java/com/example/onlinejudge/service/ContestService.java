@@ -4,11 +4,14 @@ import com.example.onlinejudge.dto.*;
 import com.example.onlinejudge.model.*;
 import com.example.onlinejudge.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -17,58 +20,36 @@ import java.util.stream.Collectors;
 @Transactional
 public class ContestService {
     
+    // Samples sent along with the contest view; anything beyond is fetched page by page
+    private static final int INLINE_SAMPLES_PER_PROBLEM = 3;
+    private static final int INLINE_SAMPLE_MAX_BYTES = 4096;
+    
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
     private final SubmissionRepository submissionRepository;
     private final TestCaseRepository testCaseRepository;
+    private final LeaderboardService leaderboardService;
+    private final TestDataStore testDataStore;
     
+    /**
+     * Contest with problem statements and a few sample tests, read with one
+     * query per table. Hidden tests never leave the server; larger or further
+     * samples are served by {@link #getSamples}.
+     */
     public ContestDto getContestById(Long contestId) {
-        Contest contest = contestRepository.findByIdWithProblems(contestId)
+        Contest contest = contestRepository.findById(contestId)
                 .orElseThrow(() -> new RuntimeException("Contest not found"));
         
-        return convertToContestDto(contest);
-    }
-    
-    public List<LeaderboardEntryDto> getLeaderboard(Long contestId) {
-        List<Submission> acceptedSubmissions = submissionRepository.findAcceptedSubmissionsByContest(contestId);
-        
-        Map<String, LeaderboardEntryDto> leaderboardMap = new HashMap<>();
-        
-        for (Submission submission : acceptedSubmissions) {
-            String username = submission.getUsername();
-            LeaderboardEntryDto entry = leaderboardMap.computeIfAbsent(username, 
-                k -> new LeaderboardEntryDto(username, 0, 0, 0, 0));
-            
-            entry.setAcceptedSubmissions(entry.getAcceptedSubmissions() + 1);
-            
-            // Calculate time penalty (simplified)
-            Duration duration = Duration.between(submission.getSubmittedAt(), LocalDateTime.now());
-            entry.setTotalTime(entry.getTotalTime() + duration.toMinutes());
+        Map<Long, List<TestCaseDto>> samplesByProblem = new HashMap<>();
+        for (TestCase sample : testCaseRepository.findInlineSamplesByContestId(contestId,
+                INLINE_SAMPLES_PER_PROBLEM, INLINE_SAMPLE_MAX_BYTES)) {
+            samplesByProblem.computeIfAbsent(sample.getProblem().getId(), id -> new ArrayList<>())
+                    .add(convertToTestCaseDto(sample));
         }
         
-        // Count total submissions per user
-        List<Submission> allSubmissions = submissionRepository.findByContestId(contestId);
-        Map<String, Long> totalSubmissionsMap = allSubmissions.stream()
-                .collect(Collectors.groupingBy(Submission::getUsername, Collectors.counting()));
-        
-        for (LeaderboardEntryDto entry : leaderboardMap.values()) {
-            entry.setTotalSubmissions(totalSubmissionsMap.getOrDefault(entry.getUsername(), 0L).intValue());
-            entry.setSolvedProblems(entry.getAcceptedSubmissions()); // Simplified: one problem per accepted submission
-        }
-        
-        return leaderboardMap.values().stream()
-                .sorted((a, b) -> {
-                    if (a.getSolvedProblems() != b.getSolvedProblems()) {
-                        return Integer.compare(b.getSolvedProblems(), a.getSolvedProblems());
-                    }
-                    return Long.compare(a.getTotalTime(), b.getTotalTime());
-                })
-                .collect(Collectors.toList());
-    }
-    
-    private ContestDto convertToContestDto(Contest contest) {
-        List<ProblemDto> problemDtos = contest.getProblems().stream()
-                .map(this::convertToProblemDto)
+        List<ProblemDto> problemDtos = problemRepository.findSummariesByContestId(contestId).stream()
+                .map(problem -> convertToProblemDto(problem,
+                        samplesByProblem.getOrDefault(problem.getId(), List.of())))
                 .collect(Collectors.toList());
         
         return new ContestDto(
@@ -82,11 +63,29 @@ public class ContestService {
         );
     }
     
-    private ProblemDto convertToProblemDto(Problem problem) {
-        List<TestCaseDto> testCaseDtos = problem.getTestCases().stream()
-                .map(tc -> new TestCaseDto(tc.getId(), tc.getInput(), tc.getExpectedOutput(), tc.isHidden()))
-                .collect(Collectors.toList());
-        
+    public SamplePageDto getSamples(Long problemId, int page, int size) {
+        if (!problemRepository.existsById(problemId)) {
+            throw new RuntimeException("Problem not found");
+        }
+        Page<TestCase> samples = testCaseRepository.findSamplesByProblemId(problemId, PageRequest.of(page, size));
+        return new SamplePageDto(page, size, samples.getTotalElements(), samples.getContent().stream()
+                .map(this::convertToTestCaseDto)
+                .collect(Collectors.toList()));
+    }
+    
+    public LeaderboardPageDto getLeaderboard(Long contestId, int offset, int limit) {
+        return leaderboardService.getLeaderboard(contestId, offset, limit);
+    }
+    
+    public SseEmitter subscribeLeaderboard(Long contestId) {
+        return leaderboardService.subscribe(contestId);
+    }
+    
+    public LeaderboardEntryDto getLeaderboardRank(Long contestId, String username) {
+        return leaderboardService.getRank(contestId, username);
+    }
+    
+    private ProblemDto convertToProblemDto(ProblemSummary problem, List<TestCaseDto> samples) {
         return new ProblemDto(
                 problem.getId(),
                 problem.getTitle(),
@@ -96,7 +95,17 @@ public class ContestService {
                 problem.getTimeLimit(),
                 problem.getMemoryLimit(),
                 problem.getDifficulty(),
-                testCaseDtos
+                problem.getSampleCount().intValue(),
+                samples
         );
     }
+    
+    private TestCaseDto convertToTestCaseDto(TestCase testCase) {
+        try {
+            return new TestCaseDto(testCase.getId(), testDataStore.readString(testCase.getInputHash()),
+                    testDataStore.readString(testCase.getExpectedOutputHash()), testCase.isHidden());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test data of test case " + testCase.getId() + " is unreadable", e);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.dto.LeaderboardEntryDto;
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import com.example.onlinejudge.repository.SubmissionOutcome;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The leaderboard of one contest, kept sorted in memory. A contestant's row
+ * is a fold over their submissions in time order; when one of them gets a
+ * verdict only that row is recomputed and moved to its new place.
+ *
+ * <p>Scoring follows ICPC rules: a problem counts once, at its first
+ * accepted submission, for the minutes from contest start to that
+ * submission plus {@value #PENALTY_MINUTES} minutes for every rejected
+ * attempt before it. Compilation errors, submissions still being judged
+ * and submissions after the contest ended cost nothing. Ranking is by
+ * problems solved, then total time, then the earlier last solve.
+ */
+class ContestStandings {
+    
+    static final int PENALTY_MINUTES = 20;
+    
+    private static final Comparator<Standing> RANKING = Comparator
+            .comparingInt(Standing::getSolvedProblems).reversed()
+            .thenComparingLong(Standing::getTotalTime)
+            .thenComparingLong(Standing::getLastSolveMinute)
+            .thenComparing(Standing::getUsername);
+    
+    @Getter
+    private final LocalDateTime startTime;
+    
+    @Getter
+    private final LocalDateTime endTime;
+    
+    private final Map<String, Standing> byUser = new HashMap<>();
+    private final RankedSkipList<Standing> ranking = new RankedSkipList<>(RANKING);
+    private long version;
+    
+    ContestStandings(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    Standing newStanding(String username) {
+        return new Standing(username, startTime, endTime);
+    }
+    
+    /**
+     * Swaps in a freshly computed row for its contestant. Returns whether
+     * anything visible changed, in which case the board version goes up.
+     */
+    synchronized boolean replace(Standing standing) {
+        Standing previous = byUser.put(standing.getUsername(), standing);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (standing.isRanked()) {
+            ranking.add(standing);
+        }
+        
+        boolean changed = previous == null ? standing.isRanked() : !previous.sameScore(standing);
+        if (changed) {
+            version++;
+        }
+        return changed;
+    }
+    
+    synchronized long version() {
+        return version;
+    }
+    
+    synchronized List<LeaderboardEntryDto> page(int offset, int limit) {
+        List<LeaderboardEntryDto> entries = new ArrayList<>();
+        int rank = offset;
+        for (Standing standing : ranking.range(offset, limit)) {
+            entries.add(standing.toDto(++rank));
+        }
+        return entries;
+    }
+    
+    synchronized int size() {
+        return ranking.size();
+    }
+    
+    /**
+     * The contestant's row with its rank, or null while they are unranked.
+     */
+    synchronized LeaderboardEntryDto entryOf(String username) {
+        Standing standing = byUser.get(username);
+        if (standing == null || !standing.isRanked()) {
+            return null;
+        }
+        return standing.toDto(ranking.rankOf(standing));
+    }
+    
+    /**
+     * One contestant's row. Rows are never changed once they are in the
+     * ranking, since that would break its ordering; a new row replaces the
+     * old one instead.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static class Standing {
+        private final String username;
+        private final LocalDateTime contestStart;
+        private final LocalDateTime contestEnd;
+        private int solvedProblems;
+        private int totalSubmissions;
+        private int acceptedSubmissions;
+        private long totalTime; // minutes, penalties included
+        private long lastSolveMinute;
+        
+        // Rejected attempts per problem; solved problems are removed from here
+        @Getter(AccessLevel.NONE)
+        private final Map<Long, Integer> wrongAttempts = new HashMap<>();
+        @Getter(AccessLevel.NONE)
+        private final Set<Long> solved = new HashSet<>();
+        
+        void apply(SubmissionOutcome outcome) {
+            totalSubmissions++;
+            SubmissionStatus status = outcome.getStatus();
+            if (status == SubmissionStatus.ACCEPTED) {
+                acceptedSubmissions++;
+            }
+            
+            Long problemId = outcome.getProblemId();
+            if (solved.contains(problemId) || outcome.getSubmittedAt().isAfter(contestEnd)) {
+                return;
+            }
+            
+            switch (status) {
+                case ACCEPTED:
+                    long minute = Math.max(0, Duration.between(contestStart, outcome.getSubmittedAt()).toMinutes());
+                    int penalties = wrongAttempts.getOrDefault(problemId, 0);
+                    solved.add(problemId);
+                    wrongAttempts.remove(problemId);
+                    solvedProblems++;
+                    totalTime += minute + (long) penalties * PENALTY_MINUTES;
+                    lastSolveMinute = Math.max(lastSolveMinute, minute);
+                    break;
+                case WRONG_ANSWER:
+                case TIME_LIMIT_EXCEEDED:
+                case MEMORY_LIMIT_EXCEEDED:
+                case RUNTIME_ERROR:
+                    wrongAttempts.merge(problemId, 1, Integer::sum);
+                    break;
+                default:
+                    break; // compilation errors and pending verdicts are free
+            }
+        }
+        
+        boolean sameScore(Standing other) {
+            return solvedProblems == other.solvedProblems
+                    && totalTime == other.totalTime
+                    && lastSolveMinute == other.lastSolveMinute
+                    && totalSubmissions == other.totalSubmissions
+                    && acceptedSubmissions == other.acceptedSubmissions;
+        }
+        
+        boolean isRanked() {
+            return solvedProblems > 0;
+        }
+        
+        LeaderboardEntryDto toDto(int rank) {
+            return new LeaderboardEntryDto(rank, username, solvedProblems, totalSubmissions, acceptedSubmissions,
+                    totalTime);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.onlinejudge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized contest views and sample pages with their ETags. Contests and
+ * problems hardly ever change, so each view is read and serialized once and
+ * the same bytes are served to every client until {@link ContestViewInvalidator}
+ * reports a change. Entries also expire after a TTL to pick up changes made
+ * through other nodes sharing the database.
+ */
+@Service
+public class ContestViewCache {
+    
+    private final ContestService contestService;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    @Getter
+    private final CacheControl cacheControl;
+    
+    private final Map<Long, CachedView> contests = new ConcurrentHashMap<>();
+    private final Map<SampleKey, CachedView> samples = new ConcurrentHashMap<>();
+    
+    public ContestViewCache(ContestService contestService,
+                            ObjectMapper objectMapper,
+                            @Value("${contest.cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${contest.cache.max-age-seconds:5}") long maxAgeSeconds) {
+        this.contestService = contestService;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.cacheControl = maxAgeSeconds > 0
+                ? CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().mustRevalidate()
+                : CacheControl.noCache();
+    }
+    
+    public CachedView getContest(Long contestId) {
+        return lookup(contests, contestId, () -> contestService.getContestById(contestId));
+    }
+    
+    public CachedView getSamples(Long problemId, int page, int size) {
+        return lookup(samples, new SampleKey(problemId, page, size),
+                () -> contestService.getSamples(problemId, page, size));
+    }
+    
+    public void evictContest(Long contestId) {
+        contests.remove(contestId);
+    }
+    
+    public void evictProblem(Long contestId, Long problemId) {
+        contests.remove(contestId);
+        samples.keySet().removeIf(key -> key.problemId().equals(problemId));
+    }
+    
+    /**
+     * For changes whose contest is not known without loading more entities.
+     */
+    public void evictProblem(Long problemId) {
+        contests.clear();
+        samples.keySet().removeIf(key -> key.problemId().equals(problemId));
+    }
+    
+    /**
+     * A miss is loaded inside compute(), so the burst of identical requests
+     * at contest start waits for one database read instead of each doing its
+     * own. Evictions block on the same entry, so a load racing a change is
+     * dropped rather than cached.
+     */
+    private <K> CachedView lookup(Map<K, CachedView> views, K key, Supplier<Object> loader) {
+        CachedView view = views.get(key);
+        if (view != null && !view.isExpired()) {
+            return view;
+        }
+        return views.compute(key, (k, current) ->
+                current != null && !current.isExpired() ? current : serialize(loader.get()));
+    }
+    
+    private CachedView serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            return new CachedView(body, etag, System.nanoTime() + ttlNanos);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to serialize contest view", e);
+        }
+    }
+    
+    private record SampleKey(Long problemId, int page, int size) {
+    }
+    
+    @Getter
+    @RequiredArgsConstructor
+    public static class CachedView {
+        private final byte[] body;
+        private final String etag;
+        private final long expiresAt;
+        
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
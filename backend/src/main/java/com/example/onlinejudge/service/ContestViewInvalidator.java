@@ -0,0 +1,60 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.model.Contest;
+import com.example.onlinejudge.model.Problem;
+import com.example.onlinejudge.model.TestCase;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entity listener on contests, problems and test cases that evicts the
+ * cached views showing them. The eviction is repeated after commit, since a
+ * request in between can still read and cache the old rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContestViewInvalidator {
+    
+    // Not present on judge-worker nodes, which serve no views
+    private final ObjectProvider<ContestViewCache> contestViewCache;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ContestViewCache cache = contestViewCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        
+        Runnable evict;
+        if (entity instanceof Contest contest) {
+            evict = () -> cache.evictContest(contest.getId());
+        } else if (entity instanceof Problem problem) {
+            Long contestId = problem.getContest().getId();
+            evict = () -> cache.evictProblem(contestId, problem.getId());
+        } else if (entity instanceof TestCase testCase) {
+            // getId() does not initialize the lazy problem; its contest would
+            Long problemId = testCase.getProblem().getId();
+            evict = () -> cache.evictProblem(problemId);
+        } else {
+            return;
+        }
+        
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
@@ -4,21 +4,30 @@ import com.example.onlinejudge.model.*;
 import com.example.onlinejudge.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 
 @Service
+@Order(0)
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
     private final TestCaseRepository testCaseRepository;
+    private final TestDataStore testDataStore;
     
     @Override
     public void run(String... args) throws Exception {
+        // The database file keeps its data across restarts
+        if (contestRepository.count() > 0) {
+            return;
+        }
+        
         // Create sample contest
         Contest contest = new Contest();
         contest.setName("Beginner Coding Contest");
@@ -44,8 +53,7 @@ public class DataInitializer implements CommandLineRunner {
         
         // Test case for Problem 1
         TestCase testCase1 = new TestCase();
-        testCase1.setInput("");
-        testCase1.setExpectedOutput("Hello World");
+        storeData(testCase1, "", "Hello World");
         testCase1.setProblem(savedProblem1);
         testCase1.setHidden(false);
         testCaseRepository.save(testCase1);
@@ -65,15 +73,13 @@ public class DataInitializer implements CommandLineRunner {
         
         // Test cases for Problem 2
         TestCase testCase2a = new TestCase();
-        testCase2a.setInput("5 3");
-        testCase2a.setExpectedOutput("8");
+        storeData(testCase2a, "5 3", "8");
         testCase2a.setProblem(savedProblem2);
         testCase2a.setHidden(false);
         testCaseRepository.save(testCase2a);
         
         TestCase testCase2b = new TestCase();
-        testCase2b.setInput("10 20");
-        testCase2b.setExpectedOutput("30");
+        storeData(testCase2b, "10 20", "30");
         testCase2b.setProblem(savedProblem2);
         testCase2b.setHidden(false);
         testCaseRepository.save(testCase2b);
@@ -93,15 +99,13 @@ public class DataInitializer implements CommandLineRunner {
         
         // Test cases for Problem 3
         TestCase testCase3a = new TestCase();
-        testCase3a.setInput("4");
-        testCase3a.setExpectedOutput("Even");
+        storeData(testCase3a, "4", "Even");
         testCase3a.setProblem(savedProblem3);
         testCase3a.setHidden(false);
         testCaseRepository.save(testCase3a);
         
         TestCase testCase3b = new TestCase();
-        testCase3b.setInput("7");
-        testCase3b.setExpectedOutput("Odd");
+        storeData(testCase3b, "7", "Odd");
         testCase3b.setProblem(savedProblem3);
         testCase3b.setHidden(false);
         testCaseRepository.save(testCase3b);
@@ -110,4 +114,13 @@ public class DataInitializer implements CommandLineRunner {
         System.out.println("Contest ID: " + savedContest.getId());
         System.out.println("Problem IDs: " + savedProblem1.getId() + ", " + savedProblem2.getId() + ", " + savedProblem3.getId());
     }
+    
+    private void storeData(TestCase testCase, String input, String expectedOutput) throws IOException {
+        TestDataStore.Blob storedInput = testDataStore.put(input);
+        TestDataStore.Blob storedOutput = testDataStore.put(expectedOutput);
+        testCase.setInputHash(storedInput.sha256());
+        testCase.setInputSize(storedInput.size());
+        testCase.setExpectedOutputHash(storedOutput.sha256());
+        testCase.setExpectedOutputSize(storedOutput.size());
+    }
 }
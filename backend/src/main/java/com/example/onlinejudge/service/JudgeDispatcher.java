@@ -0,0 +1,238 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.JudgeJob.Lane;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.repository.JudgeJobRepository;
+import com.example.onlinejudge.service.JudgeQueueService.ClaimedJob;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a fixed pool of judge workers sized to sandbox capacity. Workers
+ * pull from the persistent queue in {@link JudgeQueueService}, so nothing
+ * is lost when the process dies: submissions queued or being judged at
+ * that point are picked up again once their lease expires, by this node
+ * after a restart or by any other node sharing the database. The same
+ * class drives the standalone judge-worker nodes; an API node started
+ * with {@code judge.queue.workers=0} only enqueues. New
+ * submissions are only refused when the configured hard limits on pending
+ * work are reached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeDispatcher {
+    
+    private static final Duration VERDICT_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+    private static final Set<Lane> SUBMISSION_LANES = EnumSet.of(Lane.LIVE, Lane.PRACTICE);
+    
+    private final JudgeService judgeService;
+    private final JudgeQueueService judgeQueueService;
+    private final VerdictWriter verdictWriter;
+    private final SubmissionProgressTracker progressTracker;
+    private final JudgeJobRepository judgeJobRepository;
+    private final JudgeProperties judgeProperties;
+    
+    // Jobs this node is judging right now: job id -> submission id
+    private final Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+    private final Object workAvailable = new Object();
+    private volatile boolean running;
+    private ExecutorService workers;
+    private String nodeId;
+    
+    /**
+     * Recovers stranded submissions, then starts the workers. Runs once the
+     * application is ready so recovery sees a fully initialised context.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        JudgeProperties.Queue queue = judgeProperties.getQueue();
+        nodeId = StringUtils.hasText(queue.getNodeId()) ? queue.getNodeId() : generateNodeId();
+        
+        if (StringUtils.hasText(queue.getNodeId())) {
+            // Same identity as before a restart: whatever it held is dead now
+            judgeQueueService.releaseLeases(nodeId);
+        }
+        judgeQueueService.recover();
+        
+        running = true;
+        if (queue.getWorkers() <= 0) {
+            log.info("Judge node {} only queues submissions; judge-worker nodes run them", nodeId);
+            return;
+        }
+        workers = Executors.newFixedThreadPool(queue.getWorkers(), new CustomizableThreadFactory("judge-"));
+        for (int i = 0; i < queue.getWorkers(); i++) {
+            workers.execute(this::workLoop);
+        }
+        log.info("Judge node {} started with {} workers", nodeId, queue.getWorkers());
+    }
+    
+    /**
+     * Stops claiming work and gives in-progress judges a moment to finish.
+     * Jobs still running after that are interrupted; once the verdicts of the
+     * finished ones are written, the remaining leases are released so those
+     * jobs are requeued right away rather than after expiry.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (workers == null) {
+            return;
+        }
+        wakeWorkers();
+        workers.shutdown();
+        if (!workers.awaitTermination(judgeProperties.getQueue().getShutdownGracePeriod().toMillis(),
+                TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        verdictWriter.drain(VERDICT_DRAIN_TIMEOUT);
+        judgeQueueService.releaseLeases(nodeId);
+    }
+    
+    /**
+     * Refuses a new submission when the hard limits are reached: 429 territory
+     * for a user with too much pending work, 503 when the whole backlog is full.
+     * Only live and practice jobs count. Rejudges wait behind them anyway, and
+     * a rejudge of a whole problem must not lock its contestants out.
+     */
+    public void checkCapacity(String username) {
+        JudgeProperties.Queue queue = judgeProperties.getQueue();
+        
+        if (judgeJobRepository.countOpenInLanesByUsername(username, SUBMISSION_LANES) >= queue.getMaxPendingPerUser()) {
+            throw new JudgeQueueFullException("Too many submissions waiting to be judged for " + username,
+                    true, queue.getRetryAfterSeconds());
+        }
+        
+        if (judgeJobRepository.countOpenInLanes(SUBMISSION_LANES) >= queue.getMaxPending()) {
+            throw new JudgeQueueFullException("Judge queue is full", false, queue.getRetryAfterSeconds());
+        }
+    }
+    
+    /**
+     * Queues a saved submission for judging. The job row joins the caller's
+     * transaction, so it exists exactly when the submission does; idle
+     * workers are woken once that transaction has committed.
+     */
+    public void dispatch(Submission submission) {
+        judgeQueueService.enqueue(submission);
+        wakeWorkersAfterCommit();
+    }
+    
+    /**
+     * Queues an already judged submission again in the low-priority rejudge
+     * lane, so it only takes capacity live and practice traffic leaves free.
+     */
+    public void rejudge(Submission submission) {
+        judgeQueueService.enqueue(submission, Lane.REJUDGE);
+        wakeWorkersAfterCommit();
+    }
+    
+    private void wakeWorkersAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeWorkers();
+                }
+            });
+        } else {
+            wakeWorkers();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${judge.queue.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!running) {
+            return;
+        }
+        Set<Long> leased = new HashSet<>(inFlight.keySet());
+        leased.addAll(verdictWriter.pendingJobIds());
+        judgeQueueService.heartbeat(nodeId, leased);
+        if (judgeQueueService.requeueExpired() > 0) {
+            wakeWorkers();
+        }
+    }
+    
+    private void workLoop() {
+        long pollMs = judgeProperties.getQueue().getPollIntervalMs();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Optional<ClaimedJob> claimed = judgeQueueService.claimNext(nodeId);
+                if (claimed.isPresent()) {
+                    process(claimed.get());
+                } else {
+                    synchronized (workAvailable) {
+                        workAvailable.wait(pollMs);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Judge worker failed to take work: {}", e.getMessage());
+                sleepQuietly(pollMs);
+            }
+        }
+    }
+    
+    private void process(ClaimedJob job) {
+        inFlight.put(job.getJobId(), job.getSubmissionId());
+        try {
+            SubmissionVerdict verdict = judgeService.judge(job.getSubmissionId());
+            if (Thread.currentThread().isInterrupted()) {
+                progressTracker.remove(job.getSubmissionId());
+                return; // no verdict; the lease is released on shutdown
+            }
+            if (verdict == null) {
+                judgeQueueService.complete(job.getJobId(), nodeId); // submission is gone
+                return;
+            }
+            // The writer completes the job along with the verdict and keeps it leased until then
+            verdictWriter.submit(job.getJobId(), nodeId, verdict);
+        } finally {
+            inFlight.remove(job.getJobId());
+        }
+    }
+    
+    private void wakeWorkers() {
+        synchronized (workAvailable) {
+            workAvailable.notifyAll();
+        }
+    }
+    
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String generateNodeId() {
+        // RuntimeMXBean name is "pid@hostname"; the suffix tells restarts apart
+        return ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
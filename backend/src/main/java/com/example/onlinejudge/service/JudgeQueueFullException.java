@@ -0,0 +1,20 @@
+package com.example.onlinejudge.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a submission is refused because the judge backlog reached a
+ * configured hard limit. Carries the delay clients should wait before retrying.
+ */
+@Getter
+public class JudgeQueueFullException extends RuntimeException {
+    
+    private final boolean perUser;
+    private final long retryAfterSeconds;
+    
+    public JudgeQueueFullException(String message, boolean perUser, long retryAfterSeconds) {
+        super(message);
+        this.perUser = perUser;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
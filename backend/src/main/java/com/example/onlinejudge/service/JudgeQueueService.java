@@ -0,0 +1,202 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.JudgeJob;
+import com.example.onlinejudge.model.JudgeJob.JobStatus;
+import com.example.onlinejudge.model.JudgeJob.Lane;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import com.example.onlinejudge.repository.JudgeJobRepository;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The persistent judge queue. Every submission gets a {@link JudgeJob} row
+ * in the same transaction that saves it; workers claim rows with a
+ * compare-and-set update that grants them a lease, keep the lease alive
+ * with heartbeats while judging and mark the row DONE afterwards. A job
+ * whose lease runs out (its worker died or hung) goes back to QUEUED, up
+ * to {@code judge.queue.max-attempts} claims.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeQueueService {
+    
+    private static final int CLAIM_CANDIDATES = 8;
+    
+    private final JudgeJobRepository judgeJobRepository;
+    private final SubmissionRepository submissionRepository;
+    private final JudgeProperties judgeProperties;
+    private final JudgeScheduler judgeScheduler;
+    private final MeterRegistry meterRegistry;
+    
+    @Transactional
+    public JudgeJob enqueue(Submission submission) {
+        return enqueue(submission, judgeScheduler.laneFor(submission));
+    }
+    
+    @Transactional
+    public JudgeJob enqueue(Submission submission, Lane lane) {
+        LocalDateTime now = LocalDateTime.now();
+        JudgeJob job = new JudgeJob();
+        job.setSubmission(submission);
+        job.setLane(lane);
+        job.setUsername(submission.getUsername());
+        job.setEnqueuedAt(now);
+        job.setSchedKey(judgeScheduler.schedKey(submission.getUsername(), lane,
+                now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        return judgeJobRepository.save(job);
+    }
+    
+    /**
+     * Claims the queued job that {@link JudgeScheduler} put first for
+     * {@code owner}. Candidates another worker claimed first are skipped.
+     * How long the job waited is recorded per lane as judge.queue.wait.
+     */
+    @Transactional
+    public Optional<ClaimedJob> claimNext(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(judgeProperties.getQueue().getLeaseDuration());
+        
+        for (Long jobId : judgeJobRepository.findQueuedIds(PageRequest.of(0, CLAIM_CANDIDATES))) {
+            if (judgeJobRepository.claim(jobId, owner, now, leaseExpiresAt) == 1) {
+                JudgeJob job = judgeJobRepository.findById(jobId)
+                        .orElseThrow(() -> new RuntimeException("Judge job not found"));
+                if (job.getAttempts() == 1) {
+                    waitTimer(job.getLane()).record(Duration.between(job.getEnqueuedAt(), now));
+                }
+                return Optional.of(new ClaimedJob(jobId, job.getSubmission().getId()));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    @Transactional
+    public void heartbeat(String owner, Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime leaseExpiresAt = LocalDateTime.now().plus(judgeProperties.getQueue().getLeaseDuration());
+        int extended = judgeJobRepository.extendLeases(jobIds, owner, leaseExpiresAt);
+        if (extended < jobIds.size()) {
+            log.warn("Lost the lease on {} of {} judge jobs held by {}", jobIds.size() - extended, jobIds.size(), owner);
+        }
+    }
+    
+    /**
+     * Marks a job done. Returns false if the lease was lost in the meantime,
+     * in which case the job may already be running elsewhere.
+     */
+    @Transactional
+    public boolean complete(Long jobId, String owner) {
+        return judgeJobRepository.complete(jobId, owner, LocalDateTime.now()) == 1;
+    }
+    
+    /**
+     * Gives up the leases of {@code owner} so the jobs are requeued on the
+     * next {@link #requeueExpired()} instead of waiting for them to run out.
+     */
+    @Transactional
+    public void releaseLeases(String owner) {
+        int released = judgeJobRepository.expireLeasesOf(owner, LocalDateTime.now());
+        if (released > 0) {
+            log.info("Released {} judge jobs held by {}", released, owner);
+        }
+    }
+    
+    /**
+     * Puts jobs with an expired lease back on the queue and their submissions
+     * back to PENDING. Jobs that already used up their attempts fail the
+     * submission instead, so a submission that kills its worker cannot loop.
+     * Every node runs this, and a lease may be renewed or the job claimed
+     * again after it was read, so each job moves with a conditional update
+     * and its submission is only touched if that update won.
+     */
+    @Transactional
+    public int requeueExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int maxAttempts = judgeProperties.getQueue().getMaxAttempts();
+        
+        int moved = 0;
+        for (JudgeJob job : judgeJobRepository.findExpiredLeases(now)) {
+            Submission submission = job.getSubmission();
+            if (job.getAttempts() >= maxAttempts) {
+                if (judgeJobRepository.failExpired(job.getId(), job.getAttempts(), now) == 1) {
+                    log.warn("Giving up on submission {} after {} attempts", submission.getId(), job.getAttempts());
+                    submission.setStatus(SubmissionStatus.RUNTIME_ERROR);
+                    submission.setResult("Judge error");
+                    submission.setErrorMessage("Judge error: gave up after " + job.getAttempts() + " attempts");
+                    moved++;
+                }
+            } else if (judgeJobRepository.requeueExpired(job.getId(), job.getAttempts(), now) == 1) {
+                log.info("Lease of {} on submission {} expired, requeueing", job.getLeaseOwner(), submission.getId());
+                submission.setStatus(SubmissionStatus.PENDING);
+                moved++;
+            }
+        }
+        return moved;
+    }
+    
+    /**
+     * Startup recovery: any PENDING or RUNNING submission without a live job
+     * (queued before the judge queue was persistent, or whose job row got
+     * lost) gets a fresh one, then expired leases are requeued. This only
+     * finds anything when the database outlives the process, as the
+     * file-backed default {@code spring.datasource.url} does; an in-memory
+     * database starts every run with an empty queue.
+     */
+    @Transactional
+    public void recover() {
+        Set<Long> queued = new HashSet<>(judgeJobRepository.findSubmissionIdsByStatusIn(
+                List.of(JobStatus.QUEUED, JobStatus.CLAIMED)));
+        
+        int recovered = 0;
+        for (Submission submission : submissionRepository.findByStatusIn(
+                List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING))) {
+            if (!queued.contains(submission.getId())) {
+                submission.setStatus(SubmissionStatus.PENDING);
+                enqueue(submission);
+                recovered++;
+            }
+        }
+        
+        int requeued = requeueExpired();
+        if (recovered > 0 || requeued > 0) {
+            log.info("Judge queue recovery: {} stranded submissions queued, {} expired leases requeued",
+                    recovered, requeued);
+        }
+    }
+    
+    private Timer waitTimer(Lane lane) {
+        return Timer.builder("judge.queue.wait")
+                .description("Time from enqueue to first claim of a judge job")
+                .tag("lane", lane.name().toLowerCase())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class ClaimedJob {
+        private Long jobId;
+        private Long submissionId;
+    }
+}
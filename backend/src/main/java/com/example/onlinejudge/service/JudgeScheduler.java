@@ -0,0 +1,68 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.Contest;
+import com.example.onlinejudge.model.JudgeJob.Lane;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.repository.JudgeJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Decides the order in which queued judge jobs are claimed. Every job gets
+ * a virtual start time ({@code schedKey}) when it is enqueued and workers
+ * always take the lowest one, so the ordering holds across any number of
+ * nodes sharing the queue table.
+ *
+ * <p>The key is the enqueue time plus a fixed offset for the job's lane
+ * (live contest, practice, rejudge), pushed further back by one quantum
+ * for every job the same user already has waiting in that lane, up to
+ * {@code judge.scheduler.max-user-delay}. A user with 30 queued submissions
+ * thus takes turns with everyone else instead of blocking them, and a
+ * rejudge of a whole problem only runs ahead of live traffic once it has
+ * waited out the rejudge offset. A key is therefore at most the lane
+ * offset plus the maximum user delay after the enqueue time, and jobs
+ * enqueued once that moment has passed get larger keys. So only a bounded
+ * set of jobs can ever go first, and every job is eventually claimed.
+ */
+@Component
+@RequiredArgsConstructor
+public class JudgeScheduler {
+    
+    private final JudgeJobRepository judgeJobRepository;
+    private final JudgeProperties judgeProperties;
+    
+    public Lane laneFor(Submission submission) {
+        Contest contest = submission.getContest();
+        LocalDateTime now = LocalDateTime.now();
+        boolean live = contest.isActive()
+                && !now.isBefore(contest.getStartTime())
+                && now.isBefore(contest.getEndTime());
+        return live ? Lane.LIVE : Lane.PRACTICE;
+    }
+    
+    public long schedKey(String username, Lane lane, long nowMillis) {
+        JudgeProperties.Scheduler scheduler = judgeProperties.getScheduler();
+        long key = nowMillis + laneOffset(lane, scheduler);
+        
+        Long lastQueued = judgeJobRepository.findMaxQueuedSchedKey(username, lane);
+        if (lastQueued != null) {
+            long latest = key + scheduler.getMaxUserDelay().toMillis();
+            key = Math.min(latest, Math.max(key, lastQueued + scheduler.getUserQuantum().toMillis()));
+        }
+        return key;
+    }
+    
+    private long laneOffset(Lane lane, JudgeProperties.Scheduler scheduler) {
+        switch (lane) {
+            case PRACTICE:
+                return scheduler.getPracticeDelay().toMillis();
+            case REJUDGE:
+                return scheduler.getRejudgeDelay().toMillis();
+            default:
+                return 0;
+        }
+    }
+}
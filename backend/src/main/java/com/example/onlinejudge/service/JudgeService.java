@@ -1,171 +1,462 @@
 package com.example.onlinejudge.service;
 
+import com.example.onlinejudge.checker.*;
+import com.example.onlinejudge.config.JudgeProperties;
 import com.example.onlinejudge.model.*;
 import com.example.onlinejudge.repository.*;
+import com.example.onlinejudge.sandbox.*;
+import com.example.onlinejudge.service.TestSetCache.CachedTest;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JudgeService {
     
+    private static final int SIGNAL_EXIT_BASE = 128; // exit codes above this mean killed by a signal
+    private static final double OOM_KILL_THRESHOLD = 0.9;
+    
     private final SubmissionRepository submissionRepository;
-    private final TestCaseRepository testCaseRepository;
+    private final JudgeProperties judgeProperties;
+    private final Sandbox sandbox;
+    private final CheckerCache checkerCache;
+    private final TestDataStore testDataStore;
+    private final TestSetCache testSetCache;
+    private final VerdictCache verdictCache;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Helper threads driving the extra sandbox slots of parallel submissions
+    private final ExecutorService testCaseExecutor =
+            Executors.newCachedThreadPool(new CustomizableThreadFactory("test-case-"));
+    private final AtomicInteger activeSubmissions = new AtomicInteger();
     
-    @Async
-    public CompletableFuture<Void> queueSubmission(Long submissionId) {
+    /**
+     * Judges one submission on the calling thread and returns its verdict
+     * without writing it; {@link JudgeDispatcher} hands it to
+     * {@link VerdictWriter}. While judging, the submission stays PENDING in
+     * the database and its progress only goes out as events. Code already
+     * judged on the same tests gets that verdict from {@link VerdictCache}
+     * without a sandbox. Returns null if the submission no longer exists, or
+     * if the thread is interrupted, in which case the interrupt flag is kept
+     * set.
+     */
+    public SubmissionVerdict judge(Long submissionId) {
+        Submission submission = submissionRepository.findById(submissionId).orElse(null);
+        if (submission == null) {
+            log.warn("Submission {} to judge does not exist", submissionId);
+            return null;
+        }
+        
+        activeSubmissions.incrementAndGet();
         try {
-            judgeSubmission(submissionId);
+            return judgeSubmission(submission);
         } catch (Exception e) {
             log.error("Error judging submission {}: {}", submissionId, e.getMessage());
-            updateSubmissionStatus(submissionId, Submission.SubmissionStatus.RUNTIME_ERROR, 
-                    "Judge error: " + e.getMessage());
+            return verdict(submission, Submission.SubmissionStatus.RUNTIME_ERROR, "Judge error: " + e.getMessage());
+        } finally {
+            activeSubmissions.decrementAndGet();
         }
-        return CompletableFuture.completedFuture(null);
     }
     
-    private void judgeSubmission(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId)
-                .orElseThrow(() -> new RuntimeException("Submission not found"));
+    @PreDestroy
+    public void shutdown() {
+        testCaseExecutor.shutdownNow();
+    }
+    
+    private SubmissionVerdict judgeSubmission(Submission submission) throws IOException {
+        Long submissionId = submission.getId();
+        eventPublisher.publishEvent(new SubmissionProgressEvent(submissionId, 0, 0));
         
-        updateSubmissionStatus(submissionId, Submission.SubmissionStatus.RUNNING, null);
+        Problem problem = submission.getProblem();
+        TestSetCache.TestSet testSet = testSetCache.get(problem.getId());
+        String verdictKey = verdictCache.key(submission, problem, testSet.getVersion());
+        SubmissionVerdict cached = verdictCache.find(submission, verdictKey);
+        if (cached != null) {
+            return cached; // identical code already judged on these tests; no sandbox needed
+        }
         
-        try {
-            List<TestCase> testCases = testCaseRepository.findByProblemId(submission.getProblem().getId());
+        Language language = Language.fromName(submission.getLanguage());
+        SandboxLimits limits = new SandboxLimits(problem.getTimeLimit(), problem.getMemoryLimit(),
+                judgeProperties.getCompileTimeoutSeconds());
+        
+        try (SandboxSession session = sandbox.open(language, limits)) {
+            Path workspace = session.getWorkspace();
+            Files.write(workspace.resolve(language.getSourceFile()), submission.getCode().getBytes());
+            
+            // Compile once; every test case below reuses the artifact in the workspace
+            CompileResult compileResult = session.compile();
+            if (!compileResult.isSuccess()) {
+                // A compile timeout may go the other way on a quieter node, so it is not reused
+                return verdictCache.reusable(verdict(submission, Submission.SubmissionStatus.COMPILATION_ERROR,
+                        "Compilation Error", compileResult.getOutput()),
+                        compileResult.isTimedOut() ? null : verdictKey, limits.getTimeLimitSeconds());
+            }
             
-            for (TestCase testCase : testCases) {
-                JudgeResult result = executeCode(submission, testCase);
-                
+            List<CachedTest> testCases = testSet.getTests();
+            List<RunRequest> runs = writeTestInputs(workspace, testCases);
+            TestProgress progress = new TestProgress(submissionId, runs.size());
+            eventPublisher.publishEvent(new SubmissionProgressEvent(submissionId, 0, runs.size()));
+            
+            List<JudgeResult> results;
+            try (OutputChecker checker = outputChecker(problem)) {
+                int slots = parallelSlots(testCases.size());
+                if (slots > 1) {
+                    results = runParallel(session, slots, runs, testCases, checker, progress);
+                } else if (judgeProperties.isBatchExecution()) {
+                    results = runBatch(session, runs, testCases, checker, progress);
+                } else {
+                    results = runSequential(session, runs, testCases, checker, progress);
+                }
+            }
+            
+            for (JudgeResult result : results) {
                 if (!result.isAccepted()) {
-                    updateSubmissionStatus(submissionId, result.getStatus(), result.getErrorMessage());
-                    return;
+                    return verdictCache.reusable(verdict(submission, result.getStatus(), result.getErrorMessage(),
+                            results), verdictKey, limits.getTimeLimitSeconds());
                 }
             }
             
+            if (results.size() < testCases.size()) {
+                return verdict(submission, Submission.SubmissionStatus.RUNTIME_ERROR,
+                        "Judge error: only " + results.size() + " of " + testCases.size() + " test cases were run",
+                        results);
+            }
+            
             // All test cases passed
-            updateSubmissionStatus(submissionId, Submission.SubmissionStatus.ACCEPTED, "Accepted");
+            return verdictCache.reusable(verdict(submission, Submission.SubmissionStatus.ACCEPTED, "Accepted",
+                    results), verdictKey, limits.getTimeLimitSeconds());
             
+        } catch (InterruptedException e) {
+            // Shutting down: no verdict, so the job is requeued
+            Thread.currentThread().interrupt();
+            log.warn("Judging of submission {} interrupted", submissionId);
+            return null;
+        } catch (CheckerException e) {
+            log.warn("Checker of problem {} failed on submission {}: {}", problem.getId(), submissionId,
+                    e.getMessage());
+            return verdict(submission, Submission.SubmissionStatus.RUNTIME_ERROR, "Judge error: " + e.getMessage());
         } catch (Exception e) {
             log.error("Error during code execution: {}", e.getMessage());
-            updateSubmissionStatus(submissionId, Submission.SubmissionStatus.RUNTIME_ERROR, 
+            return verdict(submission, Submission.SubmissionStatus.RUNTIME_ERROR,
                     "Execution error: " + e.getMessage());
         }
     }
     
-    private JudgeResult executeCode(Submission submission, TestCase testCase) {
-        try {
-            // Create temporary files
-            Path tempDir = Files.createTempDirectory("judge_" + submission.getId());
-            Path codeFile = tempDir.resolve(getFileName(submission.getLanguage()));
-            Path inputFile = tempDir.resolve("input.txt");
-            Path outputFile = tempDir.resolve("output.txt");
-            
-            // Write code and input
-            Files.write(codeFile, submission.getCode().getBytes());
-            Files.write(inputFile, testCase.getInput().getBytes());
-            
-            // Build Docker command
-            String dockerCommand = buildDockerCommand(submission, tempDir, codeFile, inputFile, outputFile);
-            
-            // Execute Docker command
-            ProcessBuilder pb = new ProcessBuilder("docker", "run", "--rm", 
-                    "--memory=" + submission.getProblem().getMemoryLimit() + "m",
-                    "--cpus=1",
-                    "--network=none",
-                    "-v", tempDir.toString() + ":/workspace",
-                    "onlinejudge-judge:latest",
-                    "sh", "-c", dockerCommand);
-            
-            Process process = pb.start();
-            
-            // Set timeout
-            boolean finished = process.waitFor(submission.getProblem().getTimeLimit(), 
-                    java.util.concurrent.TimeUnit.SECONDS);
+    private List<RunRequest> writeTestInputs(Path workspace, List<CachedTest> testCases) throws IOException {
+        Files.createDirectories(workspace.resolve("tests"));
+        List<RunRequest> runs = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            String name = String.valueOf(i + 1);
+            RunRequest run = new RunRequest(name, "tests/" + name + ".in", "tests/" + name + ".out");
+            testDataStore.link(testCases.get(i).inputFile(), workspace.resolve(run.getInputFile()));
+            runs.add(run);
+        }
+        return runs;
+    }
+    
+    /**
+     * Runs every test case in one sandbox call, then checks all outputs in
+     * one go, so a checker program starts once per submission.
+     * The sandbox stops after the first crash or timeout; later tests are
+     * reported as not run.
+     */
+    private List<JudgeResult> runBatch(SandboxSession session, List<RunRequest> runs, List<CachedTest> testCases,
+                                       OutputChecker checker, RunListener progress)
+            throws IOException, InterruptedException {
+        List<RunResult> runResults = session.run(runs, CancellationToken.NONE, progress);
+        
+        JudgeResult[] results = new JudgeResult[runResults.size()];
+        List<CheckTask> tasks = new ArrayList<>();
+        List<Integer> checked = new ArrayList<>();
+        for (int i = 0; i < runResults.size(); i++) {
+            results[i] = runFailure(session, runs.get(i), runResults.get(i));
+            if (results[i] == null) {
+                tasks.add(checkTask(session, runs.get(i), testCases.get(i)));
+                checked.add(i);
+            }
+        }
+        
+        if (!tasks.isEmpty()) {
+            List<CheckResult> checks = checker.check(tasks);
+            for (int k = 0; k < checked.size(); k++) {
+                int i = checked.get(k);
+                results[i] = judged(runs.get(i), runResults.get(i), checks.get(k));
+            }
+        }
+        return List.of(results);
+    }
+    
+    /**
+     * Runs test cases one sandbox call at a time and stops at the first test
+     * that does not pass, including wrong answers.
+     */
+    private List<JudgeResult> runSequential(SandboxSession session, List<RunRequest> runs, List<CachedTest> testCases,
+                                            OutputChecker checker, RunListener progress)
+            throws IOException, InterruptedException {
+        List<JudgeResult> results = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            List<RunResult> runResults = session.run(List.of(runs.get(i)), CancellationToken.NONE, progress);
+            if (runResults.isEmpty()) {
+                break;
+            }
             
-            if (!finished) {
-                process.destroyForcibly();
-                return new JudgeResult(Submission.SubmissionStatus.TIME_LIMIT_EXCEEDED, 
-                        "Time limit exceeded", false);
+            JudgeResult result = checkResult(session, runs.get(i), runResults.get(0), testCases.get(i), checker);
+            results.add(result);
+            if (!result.isAccepted()) {
+                break;
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Number of sandbox slots for this submission: the configured fan-out,
+     * but only while few submissions are being judged and never more slots
+     * than test cases.
+     */
+    private int parallelSlots(int testCount) {
+        JudgeProperties.Parallel parallel = judgeProperties.getParallel();
+        if (parallel.getSlots() <= 1 || activeSubmissions.get() > parallel.getMaxActiveSubmissions()) {
+            return 1;
+        }
+        return Math.min(parallel.getSlots(), testCount);
+    }
+    
+    /**
+     * Spreads the test cases over several sandbox sessions. The compiled
+     * workspace is copied into each extra session, and every slot keeps taking
+     * the next unclaimed test until none are left or a test fails; the first
+     * failure cancels the shared token, which stops the other slots and aborts
+     * their runs in progress. Each slot is its own sandbox (container or
+     * process tree), so time and memory are still measured per test.
+     * Returns the completed tests in order, cut after the lowest failing one.
+     */
+    private List<JudgeResult> runParallel(SandboxSession primary, int slots, List<RunRequest> runs,
+                                          List<CachedTest> testCases, OutputChecker checker,
+                                          RunListener progress) throws Exception {
+        CancellationToken cancellation = new CancellationToken();
+        AtomicInteger nextTest = new AtomicInteger();
+        JudgeResult[] slotResults = new JudgeResult[runs.size()];
+        
+        List<SandboxSession> extraSessions = new ArrayList<>();
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 1; i < slots; i++) {
+                SandboxSession session = sandbox.open(primary.getLanguage(), primary.getLimits());
+                extraSessions.add(session);
+                SandboxFiles.copyDirectory(primary.getWorkspace(), session.getWorkspace());
+                workers.add(testCaseExecutor.submit(() -> {
+                    runSlot(session, runs, testCases, checker, nextTest, slotResults, cancellation, progress);
+                    return null;
+                }));
             }
             
-            int exitCode = process.exitValue();
+            // The judging thread drives the primary slot itself
+            runSlot(primary, runs, testCases, checker, nextTest, slotResults, cancellation, progress);
             
-            if (exitCode != 0) {
-                return new JudgeResult(Submission.SubmissionStatus.RUNTIME_ERROR, 
-                        "Runtime error (exit code: " + exitCode + ")", false);
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    cancellation.cancel();
+                    if (e.getCause() instanceof Exception cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            cancellation.cancel();
+            extraSessions.forEach(SandboxSession::close);
+        }
+        
+        List<JudgeResult> results = new ArrayList<>();
+        for (JudgeResult result : slotResults) {
+            if (result == null) {
+                continue; // skipped or aborted after a failure elsewhere
+            }
+            results.add(result);
+            if (!result.isAccepted()) {
+                break;
+            }
+        }
+        return results;
+    }
+    
+    private void runSlot(SandboxSession session, List<RunRequest> runs, List<CachedTest> testCases,
+                         OutputChecker checker, AtomicInteger nextTest, JudgeResult[] slotResults,
+                         CancellationToken cancellation, RunListener progress)
+            throws IOException, InterruptedException {
+        while (!cancellation.isCancelled()) {
+            int i = nextTest.getAndIncrement();
+            if (i >= runs.size()) {
+                return;
             }
             
-            // Read output and compare
-            String actualOutput = Files.readString(outputFile).trim();
-            String expectedOutput = testCase.getExpectedOutput().trim();
-            
-            if (actualOutput.equals(expectedOutput)) {
-                return new JudgeResult(Submission.SubmissionStatus.ACCEPTED, "Accepted", true);
-            } else {
-                return new JudgeResult(Submission.SubmissionStatus.WRONG_ANSWER, 
-                        "Wrong Answer", false);
+            List<RunResult> runResults = session.run(List.of(runs.get(i)), cancellation, progress);
+            if (runResults.isEmpty()) {
+                return;
             }
             
-        } catch (Exception e) {
-            log.error("Error executing code: {}", e.getMessage());
-            return new JudgeResult(Submission.SubmissionStatus.RUNTIME_ERROR, 
-                    "Execution error: " + e.getMessage(), false);
+            JudgeResult result = checkResult(session, runs.get(i), runResults.get(0), testCases.get(i), checker);
+            slotResults[i] = result;
+            if (!result.isAccepted()) {
+                cancellation.cancel();
+            }
         }
     }
     
-    private String buildDockerCommand(Submission submission, Path tempDir, 
-                                    Path codeFile, Path inputFile, Path outputFile) {
-        String language = submission.getLanguage().toLowerCase();
+    private JudgeResult checkResult(SandboxSession session, RunRequest run, RunResult runResult, CachedTest testCase,
+                                    OutputChecker checker) throws IOException, InterruptedException {
+        JudgeResult failure = runFailure(session, run, runResult);
+        if (failure != null) {
+            return failure;
+        }
+        CheckResult check = checker.check(List.of(checkTask(session, run, testCase))).get(0);
+        return judged(run, runResult, check);
+    }
+    
+    /**
+     * Verdict for a run that did not finish cleanly, or null if its output
+     * is to be checked.
+     */
+    private JudgeResult runFailure(SandboxSession session, RunRequest run, RunResult runResult) {
+        if (runResult.isTimedOut()) {
+            return new JudgeResult(Submission.SubmissionStatus.TIME_LIMIT_EXCEEDED,
+                    "Time limit exceeded on test " + run.getName(), false, runResult);
+        }
         
-        switch (language) {
-            case "java":
-                return String.format("cd /workspace && javac %s && java %s < %s > %s", 
-                        codeFile.getFileName(), 
-                        codeFile.getFileName().toString().replace(".java", ""),
-                        inputFile.getFileName(), 
-                        outputFile.getFileName());
-            case "python":
-                return String.format("cd /workspace && python %s < %s > %s", 
-                        codeFile.getFileName(), inputFile.getFileName(), outputFile.getFileName());
-            case "cpp":
-                return String.format("cd /workspace && g++ -o main %s && ./main < %s > %s", 
-                        codeFile.getFileName(), inputFile.getFileName(), outputFile.getFileName());
-            default:
-                throw new RuntimeException("Unsupported language: " + language);
-        }
-    }
-    
-    private String getFileName(String language) {
-        switch (language.toLowerCase()) {
-            case "java":
-                return "Solution.java";
-            case "python":
-                return "solution.py";
-            case "cpp":
-                return "solution.cpp";
-            default:
-                throw new RuntimeException("Unsupported language: " + language);
-        }
-    }
-    
-    @Transactional
-    private void updateSubmissionStatus(Long submissionId, Submission.SubmissionStatus status, String result) {
-        Submission submission = submissionRepository.findById(submissionId).orElse(null);
-        if (submission != null) {
-            submission.setStatus(status);
-            submission.setResult(result);
-            submissionRepository.save(submission);
+        if (exceedsMemoryLimit(runResult, session.getLimits())) {
+            return new JudgeResult(Submission.SubmissionStatus.MEMORY_LIMIT_EXCEEDED,
+                    "Memory limit exceeded on test " + run.getName(), false, runResult);
+        }
+        
+        if (runResult.getExitCode() != 0) {
+            return new JudgeResult(Submission.SubmissionStatus.RUNTIME_ERROR,
+                    "Runtime error on test " + run.getName() + " (exit code: " + runResult.getExitCode() + ")", false,
+                    runResult);
+        }
+        return null;
+    }
+    
+    private CheckTask checkTask(SandboxSession session, RunRequest run, CachedTest testCase) {
+        Path workspace = session.getWorkspace();
+        return new CheckTask(run.getName(), workspace.resolve(run.getInputFile()), testCase.expectedFile(),
+                workspace.resolve(run.getOutputFile()), testCase.expectedOutput());
+    }
+    
+    private JudgeResult judged(RunRequest run, RunResult runResult, CheckResult check) {
+        if (check.isAccepted()) {
+            return new JudgeResult(Submission.SubmissionStatus.ACCEPTED, "Accepted", true, runResult);
+        } else {
+            return new JudgeResult(Submission.SubmissionStatus.WRONG_ANSWER,
+                    "Wrong Answer on test " + run.getName() + ": " + check.getMessage(), false, runResult);
+        }
+    }
+    
+    /**
+     * The problem's own checker if it has one, otherwise the built-in
+     * comparison in the problem's compare mode.
+     */
+    private OutputChecker outputChecker(Problem problem) throws IOException, InterruptedException {
+        if (problem.getCheckerSource() != null) {
+            return checkerCache.open(problem.getCheckerLanguage(), problem.getCheckerSource());
+        }
+        return new OutputComparator(problem.getCompareMode(), problem.getFloatAbsoluteError(),
+                problem.getFloatRelativeError());
+    }
+    
+    /**
+     * Over the limit by peak RSS, or killed by a signal close to it: the
+     * container's OOM killer and failed allocations under ulimit end the
+     * program before its footprint passes the limit.
+     */
+    private boolean exceedsMemoryLimit(RunResult runResult, SandboxLimits limits) {
+        Integer peakKb = runResult.getPeakMemoryKb();
+        if (peakKb == null) {
+            return false;
+        }
+        long limitKb = limits.getMemoryLimitMb() * 1024L;
+        boolean killed = runResult.getExitCode() > SIGNAL_EXIT_BASE;
+        return peakKb > limitKb || (killed && peakKb >= limitKb * OOM_KILL_THRESHOLD);
+    }
+    
+    private SubmissionVerdict verdict(Submission submission, Submission.SubmissionStatus status, String result) {
+        return verdict(submission, status, result, null, List.of());
+    }
+    
+    private SubmissionVerdict verdict(Submission submission, Submission.SubmissionStatus status, String result,
+                                      String errorMessage) {
+        return verdict(submission, status, result, errorMessage, List.of());
+    }
+    
+    private SubmissionVerdict verdict(Submission submission, Submission.SubmissionStatus status, String result,
+                                      List<JudgeResult> results) {
+        return verdict(submission, status, result, null, results);
+    }
+    
+    /**
+     * Verdict with one record per test that ran, and the slowest wall time
+     * and largest peak memory over those tests on the submission itself.
+     */
+    private SubmissionVerdict verdict(Submission submission, Submission.SubmissionStatus status, String result,
+                                      String errorMessage, List<JudgeResult> results) {
+        List<SubmissionTestResult> tests = new ArrayList<>();
+        Integer maxWallMs = null;
+        Integer maxMemoryKb = null;
+        for (JudgeResult judged : results) {
+            RunResult run = judged.getRun();
+            tests.add(new SubmissionTestResult(null, null, Integer.parseInt(run.getName()), judged.getStatus(),
+                    run.getExitCode(), run.getWallTimeMs(), run.getCpuTimeMs(), run.getPeakMemoryKb()));
+            maxWallMs = max(maxWallMs, run.getWallTimeMs());
+            maxMemoryKb = max(maxMemoryKb, run.getPeakMemoryKb());
+        }
+        Integer memoryMb = maxMemoryKb == null ? null : (maxMemoryKb + 1023) / 1024;
+        return new SubmissionVerdict(submission.getId(), submission.getContest().getId(), submission.getUsername(),
+                status, result, errorMessage, maxWallMs, memoryMb, tests, null);
+    }
+    
+    private static Integer max(Integer current, Integer value) {
+        if (value == null) {
+            return current;
+        }
+        return current == null ? value : Math.max(current, value);
+    }
+    
+    /**
+     * Publishes "test k of n finished" as runs complete, from whichever
+     * thread or sandbox slot ran them.
+     */
+    private class TestProgress implements RunListener {
+        private final Long submissionId;
+        private final int totalTests;
+        private final AtomicInteger completed = new AtomicInteger();
+        
+        TestProgress(Long submissionId, int totalTests) {
+            this.submissionId = submissionId;
+            this.totalTests = totalTests;
+        }
+        
+        @Override
+        public void runFinished(RunResult result) {
+            eventPublisher.publishEvent(new SubmissionProgressEvent(submissionId, completed.incrementAndGet(),
+                    totalTests));
         }
     }
     
@@ -173,15 +464,18 @@ public class JudgeService {
         private final Submission.SubmissionStatus status;
         private final String errorMessage;
         private final boolean accepted;
+        private final RunResult run;
         
-        public JudgeResult(Submission.SubmissionStatus status, String errorMessage, boolean accepted) {
+        public JudgeResult(Submission.SubmissionStatus status, String errorMessage, boolean accepted, RunResult run) {
             this.status = status;
             this.errorMessage = errorMessage;
             this.accepted = accepted;
+            this.run = run;
         }
         
         public Submission.SubmissionStatus getStatus() { return status; }
         public String getErrorMessage() { return errorMessage; }
         public boolean isAccepted() { return accepted; }
+        public RunResult getRun() { return run; }
     }
 }
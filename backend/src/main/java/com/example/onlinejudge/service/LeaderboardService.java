@@ -0,0 +1,178 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.dto.LeaderboardDeltaDto;
+import com.example.onlinejudge.dto.LeaderboardEntryDto;
+import com.example.onlinejudge.dto.LeaderboardPageDto;
+import com.example.onlinejudge.model.Contest;
+import com.example.onlinejudge.repository.ContestRepository;
+import com.example.onlinejudge.repository.JudgeJobRepository;
+import com.example.onlinejudge.repository.StandingChange;
+import com.example.onlinejudge.repository.SubmissionOutcome;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import com.example.onlinejudge.service.ContestStandings.Standing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Serves contest leaderboards from memory. Boards are built from the
+ * database at startup (or on first request for a new contest) and then
+ * kept current one contestant at a time: a local verdict arrives as a
+ * {@link SubmissionJudgedEvent}, verdicts written by judge-worker nodes are
+ * picked up by polling recently completed judge jobs. Refreshing a row is
+ * idempotent, so seeing the same verdict through both paths is harmless.
+ * Rows that actually change are pushed to spectators through
+ * {@link LeaderboardStreamService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+    
+    // Poll window overlap, covering verdicts committed out of completion order
+    private static final long POLL_OVERLAP_SECONDS = 5;
+    
+    // Rows share a fixed set of locks, so lock memory stays flat however many contestants come and go
+    private static final int ROW_LOCK_STRIPES = 64;
+    
+    private final ContestRepository contestRepository;
+    private final SubmissionRepository submissionRepository;
+    private final JudgeJobRepository judgeJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderboardStreamService leaderboardStreamService;
+    
+    private final Map<Long, ContestStandings> boards = new ConcurrentHashMap<>();
+    private final Object[] rowLocks = Stream.generate(Object::new).limit(ROW_LOCK_STRIPES).toArray();
+    private volatile LocalDateTime pollWatermark = LocalDateTime.now();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long started = System.currentTimeMillis();
+        for (Contest contest : contestRepository.findAll()) {
+            boards.put(contest.getId(), build(contest));
+        }
+        log.info("Loaded {} leaderboards in {} ms", boards.size(), System.currentTimeMillis() - started);
+    }
+    
+    public LeaderboardPageDto getLeaderboard(Long contestId, int offset, int limit) {
+        ContestStandings standings = board(contestId);
+        // Rows and total from one consistent state of the board
+        synchronized (standings) {
+            return new LeaderboardPageDto(offset, limit, standings.size(), standings.version(),
+                    standings.page(offset, limit));
+        }
+    }
+    
+    public LeaderboardEntryDto getRank(Long contestId, String username) {
+        LeaderboardEntryDto entry = board(contestId).entryOf(username);
+        if (entry == null) {
+            throw new RuntimeException("No rank for " + username);
+        }
+        return entry;
+    }
+    
+    /**
+     * Opens a stream of {@link LeaderboardDeltaDto} frames for a contest.
+     * Clients load a page first and apply deltas newer than its version.
+     */
+    public SseEmitter subscribe(Long contestId) {
+        board(contestId); // fails for unknown contests
+        return leaderboardStreamService.subscribe(contestId);
+    }
+    
+    @EventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        try {
+            refresh(event.getContestId(), event.getUsername());
+        } catch (Exception e) {
+            log.error("Could not update leaderboard for submission {}: {}", event.getSubmissionId(), e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${leaderboard.poll-interval-ms:2000}")
+    public void pollRemoteVerdicts() {
+        if (boards.isEmpty()) {
+            return;
+        }
+        LocalDateTime since = pollWatermark.minusSeconds(POLL_OVERLAP_SECONDS);
+        LocalDateTime latest = pollWatermark;
+        for (StandingChange change : judgeJobRepository.findStandingChangesSince(since)) {
+            refresh(change.getContestId(), change.getUsername());
+            if (change.getCompletedAt().isAfter(latest)) {
+                latest = change.getCompletedAt();
+            }
+        }
+        pollWatermark = latest;
+    }
+    
+    private ContestStandings board(Long contestId) {
+        ContestStandings standings = boards.get(contestId);
+        if (standings != null) {
+            return standings;
+        }
+        standings = boards.computeIfAbsent(contestId, id -> build(contestRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Contest not found"))));
+        // Built on first request: clients subscribed before then hold no rows of it
+        leaderboardStreamService.publishResync(contestId);
+        return standings;
+    }
+    
+    /**
+     * Rebuilds a board in one pass over the contest's submissions in time
+     * order, only touching the projection columns and one row object per
+     * contestant.
+     */
+    private ContestStandings build(Contest contest) {
+        ContestStandings standings = new ContestStandings(contest.getStartTime(), contest.getEndTime());
+        Map<String, Standing> rows = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SubmissionOutcome> outcomes = submissionRepository.streamOutcomesByContest(contest.getId())) {
+                outcomes.forEach(outcome -> rows
+                        .computeIfAbsent(outcome.getUsername(), standings::newStanding)
+                        .apply(outcome));
+            }
+        });
+        rows.values().forEach(standings::replace);
+        return standings;
+    }
+    
+    /**
+     * Recomputes one contestant's row from their submissions. Boards that are
+     * not loaded are skipped; they are built from the database when needed.
+     */
+    private void refresh(Long contestId, String username) {
+        ContestStandings standings = boards.get(contestId);
+        if (standings == null) {
+            return;
+        }
+        // Serialise per row so an older recomputation never overwrites a newer one
+        synchronized (rowLock(contestId, username)) {
+            Standing standing = standings.newStanding(username);
+            for (SubmissionOutcome outcome : submissionRepository.findOutcomesByContestAndUsername(contestId, username)) {
+                standing.apply(outcome);
+            }
+            synchronized (standings) {
+                if (standings.replace(standing)) {
+                    leaderboardStreamService.publishDelta(contestId, new LeaderboardDeltaDto(standings.version(),
+                            username, standings.entryOf(username), standings.size()));
+                }
+            }
+        }
+    }
+    
+    private Object rowLock(Long contestId, String username) {
+        return rowLocks[Math.floorMod(31 * contestId.hashCode() + username.hashCode(), ROW_LOCK_STRIPES)];
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.dto.LeaderboardDeltaDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes leaderboard changes to spectators over Server-Sent Events, one
+ * channel per contest. Every frame is serialized once and the same bytes
+ * are handed to all subscribers of the channel through {@link SseSender},
+ * so a stalled spectator only delays itself. Each subscriber has a short
+ * queue of frames; when a slow client lets it fill up, the queue is
+ * replaced by a single "resync" frame telling the client to reload the
+ * page, so memory per client stays bounded and the client ends up with the
+ * latest state rather than a backlog.
+ */
+@Service
+@Slf4j
+public class LeaderboardStreamService {
+    
+    private static final long EMITTER_TIMEOUT_MS = 60 * 60 * 1000L;
+    
+    private final ObjectMapper objectMapper;
+    private final SseSender sseSender;
+    private final int maxQueuedFrames;
+    
+    private final Map<Long, List<SseSender.Client>> channels = new ConcurrentHashMap<>();
+    private final Set<DataWithMediaType> resyncFrame = SseEmitter.event().name("resync").data("{}").build();
+    private final Set<DataWithMediaType> heartbeatFrame = SseEmitter.event().comment("keep-alive").build();
+    
+    public LeaderboardStreamService(ObjectMapper objectMapper,
+                                    SseSender sseSender,
+                                    @Value("${leaderboard.stream.max-queued-frames:64}") int maxQueuedFrames) {
+        this.objectMapper = objectMapper;
+        this.sseSender = sseSender;
+        this.maxQueuedFrames = maxQueuedFrames;
+    }
+    
+    public SseEmitter subscribe(Long contestId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseSender.Client> channel = channels.computeIfAbsent(contestId, id -> new CopyOnWriteArrayList<>());
+        channel.add(sseSender.open(emitter, maxQueuedFrames, resyncFrame, channel::remove));
+        return emitter;
+    }
+    
+    public boolean hasSubscribers(Long contestId) {
+        List<SseSender.Client> channel = channels.get(contestId);
+        return channel != null && !channel.isEmpty();
+    }
+    
+    public void publishDelta(Long contestId, LeaderboardDeltaDto delta) {
+        if (!hasSubscribers(contestId)) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize leaderboard delta: {}", e.getMessage());
+            return;
+        }
+        broadcast(contestId, SseEmitter.event().name("delta").data(json).build());
+    }
+    
+    /**
+     * Tells every subscriber of the contest to reload, e.g. after the board
+     * was rebuilt.
+     */
+    public void publishResync(Long contestId) {
+        if (hasSubscribers(contestId)) {
+            broadcast(contestId, resyncFrame);
+        }
+    }
+    
+    /**
+     * Keeps idle connections from being closed by proxies in between.
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Long contestId : channels.keySet()) {
+            broadcast(contestId, heartbeatFrame);
+        }
+    }
+    
+    private void broadcast(Long contestId, Set<DataWithMediaType> frame) {
+        List<SseSender.Client> channel = channels.get(contestId);
+        if (channel != null) {
+            for (SseSender.Client subscriber : channel) {
+                subscriber.send(frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.onlinejudge.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Writes Server-Sent Events to clients so that no client holds up another.
+ * Each client has its own short queue, drained by one thread at a time so
+ * its frames stay in order. Publishers only queue frames and never wait.
+ * {@code SseEmitter.send} blocks while a client's connection is backed up,
+ * so the pool keeps {@code sse.sender-threads} threads but grows when they
+ * are all busy: a client stuck in a write ties up only the thread writing
+ * to it. A write that takes longer than {@code sse.send-timeout-ms} drops
+ * the client. It gets no more frames, and its stuck thread is freed once
+ * the servlet container times out the write.
+ */
+@Component
+@Slf4j
+public class SseSender {
+    
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor senders;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    
+    public SseSender(@Value("${sse.sender-threads:4}") int senderThreads,
+                     @Value("${sse.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.senders = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("sse-sender-"));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+    
+    /**
+     * Wraps an emitter in a client with room for {@code maxQueuedFrames}
+     * frames. When a frame arrives at a full queue, the backlog is replaced
+     * by {@code overflowFrame}, or simply dropped if that is null. Then the
+     * new frame is queued. {@code onClose} runs once, whenever and however
+     * the connection ends.
+     */
+    public Client open(SseEmitter emitter, int maxQueuedFrames, Set<DataWithMediaType> overflowFrame,
+                       Consumer<Client> onClose) {
+        Client client = new Client(emitter, maxQueuedFrames, overflowFrame, onClose);
+        clients.add(client);
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(e -> client.close());
+        return client;
+    }
+    
+    @Scheduled(fixedDelay = 1000)
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Client client : clients) {
+            long started = client.sendStartedAt;
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                log.debug("Dropping an event stream client whose write has been blocked for over {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+                client.drop(new IOException("Event stream write timed out"));
+            }
+        }
+    }
+    
+    public final class Client {
+        private final SseEmitter emitter;
+        private final int maxQueuedFrames;
+        private final Set<DataWithMediaType> overflowFrame;
+        private final Consumer<Client> onClose;
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private boolean completing; // guarded by queue
+        private volatile long sendStartedAt; // System.nanoTime() of the write in progress, 0 if none
+        
+        private Client(SseEmitter emitter, int maxQueuedFrames, Set<DataWithMediaType> overflowFrame,
+                       Consumer<Client> onClose) {
+            this.emitter = emitter;
+            this.maxQueuedFrames = Math.max(1, maxQueuedFrames);
+            this.overflowFrame = overflowFrame;
+            this.onClose = onClose;
+        }
+        
+        public void send(Set<DataWithMediaType> frame) {
+            synchronized (queue) {
+                if (closed.get() || completing) {
+                    return;
+                }
+                if (queue.size() >= maxQueuedFrames) {
+                    // Too far behind: skip the backlog
+                    queue.clear();
+                    if (overflowFrame != null) {
+                        queue.add(overflowFrame);
+                    }
+                }
+                queue.add(frame);
+            }
+            scheduleDrain();
+        }
+        
+        /**
+         * Ends the stream once the frames queued so far are written. Frames
+         * sent afterwards are ignored.
+         */
+        public void complete() {
+            synchronized (queue) {
+                completing = true;
+            }
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false); // shutting down
+                }
+            }
+        }
+        
+        private void drain() {
+            boolean finished = false;
+            try {
+                while (!closed.get()) {
+                    Set<DataWithMediaType> frame;
+                    synchronized (queue) {
+                        frame = queue.poll();
+                        finished = frame == null && completing;
+                    }
+                    if (frame == null) {
+                        break;
+                    }
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(frame);
+                    sendStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+            } finally {
+                sendStartedAt = 0;
+                draining.set(false);
+            }
+            
+            if (finished) {
+                if (close()) {
+                    emitter.complete();
+                }
+                return;
+            }
+            boolean more;
+            synchronized (queue) {
+                more = !queue.isEmpty() || completing;
+            }
+            if (more) {
+                scheduleDrain();
+            }
+        }
+        
+        private void drop(Exception cause) {
+            if (close()) {
+                emitter.completeWithError(cause);
+            }
+        }
+        
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            synchronized (queue) {
+                queue.clear();
+            }
+            clients.remove(this);
+            onClose.accept(this);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.dto.SubmissionStatusDto;
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import com.example.onlinejudge.repository.SubmissionState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams status changes of individual submissions to clients over
+ * Server-Sent Events. Updates come straight from {@link JudgeService}
+ * events when the submission is judged in this process; for submissions
+ * judged on a judge-worker node, the statuses of all watched submissions
+ * are read back in one query per poll tick instead. Each client gets its
+ * events in order through its own short queue in {@link SseSender}, so
+ * neither a judge nor the other watchers ever wait for a stalled client.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionEventService {
+    
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60 * 1000L;
+    private static final String EVENT_NAME = "status";
+    // Statuses supersede each other, so a client this far behind only needs the newest
+    private static final int MAX_QUEUED_EVENTS = 16;
+    
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionProgressTracker progressTracker;
+    private final SseSender sseSender;
+    
+    private final Map<Long, Watch> watches = new ConcurrentHashMap<>();
+    
+    /**
+     * Opens a stream for one submission. The current state is sent first;
+     * the stream completes after the final verdict.
+     */
+    public SseEmitter subscribe(Long submissionId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Watch watch = watches.computeIfAbsent(submissionId, id -> new Watch());
+        SseSender.Client client = sseSender.open(emitter, MAX_QUEUED_EVENTS, null,
+                closed -> unsubscribe(submissionId, closed));
+        watch.clients.add(client);
+        
+        // Read after registering so no update can fall between the two
+        List<SubmissionState> states = submissionRepository.findStatesByIdIn(List.of(submissionId));
+        if (states.isEmpty()) {
+            unsubscribe(submissionId, client);
+            throw new RuntimeException("Submission not found");
+        }
+        SubmissionStatusDto initial = currentState(states.get(0));
+        synchronized (watch) {
+            SubmissionStatusDto latest = watch.latest;
+            SubmissionStatusDto current = latest != null && latest.getStatus() == initial.getStatus()
+                    ? latest : initial;
+            if (latest == null) {
+                watch.latest = current;
+            }
+            send(client, current);
+        }
+        return emitter;
+    }
+    
+    @EventListener
+    public void onProgress(SubmissionProgressEvent event) {
+        if (watches.containsKey(event.getSubmissionId())) {
+            publish(new SubmissionStatusDto(event.getSubmissionId(), SubmissionStatus.RUNNING, null, null,
+                    event.getTestsCompleted(), event.getTotalTests()));
+        }
+    }
+    
+    @EventListener
+    public void onJudged(SubmissionJudgedEvent event) {
+        if (watches.containsKey(event.getSubmissionId())) {
+            publish(new SubmissionStatusDto(event.getSubmissionId(), event.getStatus(), event.getResult(),
+                    event.getErrorMessage(), 0, 0));
+        }
+    }
+    
+    /**
+     * Catches verdicts that did not come through local events, i.e. of
+     * submissions judged by other nodes. Their RUNNING phase is not in the
+     * database, so only final statuses are taken from it.
+     */
+    @Scheduled(fixedDelayString = "${submission-events.poll-interval-ms:1000}")
+    public void pollWatched() {
+        if (watches.isEmpty()) {
+            return;
+        }
+        for (SubmissionState state : submissionRepository.findStatesByIdIn(watches.keySet())) {
+            Watch watch = watches.get(state.getId());
+            SubmissionStatusDto latest = watch == null ? null : watch.latest;
+            if (watch != null && isFinal(state.getStatus())
+                    && (latest == null || latest.getStatus() != state.getStatus())) {
+                publish(toDto(state));
+            }
+        }
+    }
+    
+    private void publish(SubmissionStatusDto update) {
+        Watch watch = watches.get(update.getSubmissionId());
+        if (watch == null) {
+            return;
+        }
+        // Serialised per submission so every client queues the updates in the same order
+        synchronized (watch) {
+            watch.latest = update;
+            for (SseSender.Client client : watch.clients) {
+                send(client, update);
+            }
+        }
+    }
+    
+    // Only queues the event; the stream completes once the final status is written
+    private void send(SseSender.Client client, SubmissionStatusDto update) {
+        client.send(SseEmitter.event().name(EVENT_NAME).data(update).build());
+        if (isFinal(update.getStatus())) {
+            client.complete();
+        }
+    }
+    
+    private void unsubscribe(Long submissionId, SseSender.Client client) {
+        watches.computeIfPresent(submissionId, (id, watch) -> {
+            watch.clients.remove(client);
+            return watch.clients.isEmpty() ? null : watch;
+        });
+    }
+    
+    /**
+     * The stored state, or RUNNING with its progress while this node is
+     * judging a submission the database still has as PENDING.
+     */
+    private SubmissionStatusDto currentState(SubmissionState state) {
+        if (state.getStatus() == SubmissionStatus.PENDING) {
+            return progressTracker.get(state.getId())
+                    .map(progress -> new SubmissionStatusDto(state.getId(), SubmissionStatus.RUNNING, null, null,
+                            progress.getTestsCompleted(), progress.getTotalTests()))
+                    .orElseGet(() -> toDto(state));
+        }
+        return toDto(state);
+    }
+    
+    private SubmissionStatusDto toDto(SubmissionState state) {
+        return new SubmissionStatusDto(state.getId(), state.getStatus(), state.getResult(), state.getErrorMessage(),
+                0, 0);
+    }
+    
+    private static boolean isFinal(SubmissionStatus status) {
+        return status != SubmissionStatus.PENDING && status != SubmissionStatus.RUNNING;
+    }
+    
+    private static class Watch {
+        private final List<SseSender.Client> clients = new CopyOnWriteArrayList<>();
+        private volatile SubmissionStatusDto latest;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link VerdictWriter} once a final verdict has been committed.
+ */
+@Getter
+@AllArgsConstructor
+public class SubmissionJudgedEvent {
+    private final Long submissionId;
+    private final Long contestId;
+    private final String username;
+    private final SubmissionStatus status;
+    private final String result;
+    private final String errorMessage;
+}
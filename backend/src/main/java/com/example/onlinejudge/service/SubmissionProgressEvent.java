@@ -0,0 +1,17 @@
+package com.example.onlinejudge.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link JudgeService} while a submission is RUNNING: once when
+ * judging starts (no test count yet), once the test count is known, and
+ * after every finished test.
+ */
+@Getter
+@AllArgsConstructor
+public class SubmissionProgressEvent {
+    private final Long submissionId;
+    private final int testsCompleted;
+    private final int totalTests;
+}
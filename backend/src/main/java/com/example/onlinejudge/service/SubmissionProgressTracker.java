@@ -0,0 +1,37 @@
+package com.example.onlinejudge.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Submissions this node is judging right now and how far along they are.
+ * RUNNING and per-test progress only live here: the database keeps a
+ * submission PENDING until its verdict is written, so judging costs a
+ * single row update. Other nodes cannot see these entries.
+ */
+@Service
+public class SubmissionProgressTracker {
+    
+    private final Map<Long, SubmissionProgressEvent> running = new ConcurrentHashMap<>();
+    
+    @EventListener
+    public void onProgress(SubmissionProgressEvent event) {
+        running.put(event.getSubmissionId(), event);
+    }
+    
+    public Optional<SubmissionProgressEvent> get(Long submissionId) {
+        return Optional.ofNullable(running.get(submissionId));
+    }
+    
+    /**
+     * Called once judging is over: after the verdict is written, or when it
+     * was abandoned.
+     */
+    public void remove(Long submissionId) {
+        running.remove(submissionId);
+    }
+}
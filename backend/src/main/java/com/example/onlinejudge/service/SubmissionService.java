@@ -4,9 +4,16 @@ import com.example.onlinejudge.dto.*;
 import com.example.onlinejudge.model.*;
 import com.example.onlinejudge.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -16,10 +23,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class SubmissionService {
     
+    // Cursor of the first page: after every real submission
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59);
+    
     private final SubmissionRepository submissionRepository;
+    private final SubmissionTestResultRepository testResultRepository;
     private final ProblemRepository problemRepository;
     private final ContestRepository contestRepository;
-    private final JudgeService judgeService;
+    private final JudgeDispatcher judgeDispatcher;
+    private final SubmissionProgressTracker progressTracker;
     
     public SubmissionDto submitCode(SubmissionRequestDto request) {
         // Validate problem and contest exist
@@ -29,6 +41,9 @@ public class SubmissionService {
         Contest contest = contestRepository.findById(request.getContestId())
                 .orElseThrow(() -> new RuntimeException("Contest not found"));
         
+        // Refuse early when the judge backlog hit its hard limits
+        judgeDispatcher.checkCapacity(request.getUsername());
+        
         // Create submission
         Submission submission = new Submission();
         submission.setCode(request.getCode());
@@ -40,31 +55,123 @@ public class SubmissionService {
         
         Submission savedSubmission = submissionRepository.save(submission);
         
-        // Queue for judging (asynchronous)
-        judgeService.queueSubmission(savedSubmission.getId());
+        // Queue for judging once this transaction commits
+        judgeDispatcher.dispatch(savedSubmission);
         
         return convertToSubmissionDto(savedSubmission);
     }
     
+    /**
+     * Rejudges every judged submission of a problem in a contest, e.g. after
+     * its test data was fixed. Returns how many submissions were queued.
+     * Each submission keeps its previous verdict, on the leaderboard too,
+     * until the new one is written; that verdict then refreshes the row and
+     * pushes it to spectators like any other.
+     */
+    public int rejudgeProblem(Long contestId, Long problemId) {
+        List<Submission> submissions = submissionRepository.findJudgedByContestAndProblem(contestId, problemId);
+        for (Submission submission : submissions) {
+            judgeDispatcher.rejudge(submission);
+        }
+        return submissions.size();
+    }
+    
     public SubmissionDto getSubmissionById(Long submissionId) {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
         
-        return convertToSubmissionDto(submission);
+        SubmissionDto dto = convertToSubmissionDto(submission);
+        // RUNNING is not stored; it is known only on the node judging the submission
+        if (dto.getStatus() == Submission.SubmissionStatus.PENDING && progressTracker.get(submissionId).isPresent()) {
+            dto.setStatus(Submission.SubmissionStatus.RUNNING);
+        }
+        return dto;
     }
     
-    public List<SubmissionDto> getSubmissionsByContest(Long contestId) {
-        List<Submission> submissions = submissionRepository.findByContestId(contestId);
-        return submissions.stream()
-                .map(this::convertToSubmissionDto)
+    public List<SubmissionTestResultDto> getTestResults(Long submissionId) {
+        if (!submissionRepository.existsById(submissionId)) {
+            throw new RuntimeException("Submission not found");
+        }
+        return testResultRepository.findBySubmissionIdOrderByTestNumberAsc(submissionId).stream()
+                .map(test -> new SubmissionTestResultDto(test.getTestNumber(), test.getStatus(),
+                        test.getWallTimeMs(), test.getCpuTimeMs(), test.getPeakMemoryKb()))
                 .collect(Collectors.toList());
     }
     
-    public List<SubmissionDto> getSubmissionsByUser(String username, Long contestId) {
-        List<Submission> submissions = submissionRepository.findByContestIdAndUsername(contestId, username);
-        return submissions.stream()
-                .map(this::convertToSubmissionDto)
-                .collect(Collectors.toList());
+    /**
+     * Keyset-paged listing of a contest's submissions, optionally narrowed to
+     * one user, problem or set of statuses. Reads only the summary columns, so
+     * neither code nor judge output is loaded.
+     */
+    public SubmissionPageDto getSubmissions(Long contestId, String username, Long problemId,
+                                            Collection<Submission.SubmissionStatus> statuses,
+                                            String cursor, int limit) {
+        if (!contestRepository.existsById(contestId)) {
+            throw new RuntimeException("Contest not found");
+        }
+        
+        LocalDateTime beforeTime = LATEST;
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            beforeTime = LocalDateTime.parse(position[0]);
+            beforeId = Long.valueOf(position[1]);
+        }
+        Collection<Submission.SubmissionStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(Submission.SubmissionStatus.class)
+                : statuses;
+        
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<SubmissionSummary> rows = username != null
+                ? submissionRepository.findUserSummariesBefore(contestId, username, problemId, filter,
+                        beforeTime, beforeId, page)
+                : submissionRepository.findSummariesBefore(contestId, problemId, filter, beforeTime, beforeId, page);
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            SubmissionSummary last = rows.get(limit - 1);
+            nextCursor = encodeCursor(last.getSubmittedAt(), last.getId());
+        }
+        return new SubmissionPageDto(rows.stream()
+                .map(this::convertToSubmissionSummaryDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+    
+    private String encodeCursor(LocalDateTime submittedAt, Long id) {
+        String position = submittedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    private SubmissionSummaryDto convertToSubmissionSummaryDto(SubmissionSummary submission) {
+        return new SubmissionSummaryDto(
+                submission.getId(),
+                submission.getLanguage(),
+                submission.getStatus(),
+                submission.getResult(),
+                submission.getExecutionTime(),
+                submission.getMemoryUsed(),
+                submission.getSubmittedAt(),
+                submission.getProblemId(),
+                submission.getContestId(),
+                submission.getUsername()
+        );
     }
     
     private SubmissionDto convertToSubmissionDto(Submission submission) {
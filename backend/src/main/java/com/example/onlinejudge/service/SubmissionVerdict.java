@@ -0,0 +1,29 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import com.example.onlinejudge.model.SubmissionTestResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+
+import java.util.List;
+
+/**
+ * Final outcome of judging a submission, as returned by {@link JudgeService}
+ * and written by {@link VerdictWriter}.
+ */
+@Getter
+@AllArgsConstructor
+public class SubmissionVerdict {
+    private final Long submissionId;
+    private final Long contestId;
+    private final String username;
+    private final SubmissionStatus status;
+    private final String result;
+    private final String errorMessage;
+    private final Integer executionTime; // slowest test, wall ms
+    private final Integer memoryUsed; // largest peak RSS, MB
+    private final List<SubmissionTestResult> tests; // not yet attached to the submission
+    @With
+    private final String verdictKey; // null unless identical submissions may reuse this verdict
+}
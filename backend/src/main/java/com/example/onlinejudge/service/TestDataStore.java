@@ -0,0 +1,181 @@
+package com.example.onlinejudge.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test inputs and expected outputs as files named by the SHA-256 of their
+ * content, gzipped at rest under {@code testdata.dir}; the database only
+ * keeps hashes and sizes. Identical data shared by several tests or problems
+ * is stored once. For judging, each file is unpacked once into a read-only
+ * copy under {@link #getPlainDir()} and symlinked into sandbox workspaces, so
+ * test data goes from disk to the program without passing through the heap.
+ * Docker sandboxes mount that directory read-only at the same path, which
+ * keeps programs running as root in the container from changing it.
+ */
+@Service
+public class TestDataStore {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Path blobDir;
+    @Getter
+    private final Path plainDir;
+    
+    public TestDataStore(@Value("${testdata.dir:${user.home}/.onlinejudge/testdata}") String dir) {
+        Path root = Path.of(dir).toAbsolutePath();
+        this.blobDir = root.resolve("blobs");
+        this.plainDir = root.resolve("plain");
+        try {
+            // Must exist before sandbox containers mount it
+            Files.createDirectories(plainDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create test data directory " + plainDir, e);
+        }
+    }
+    
+    public record Blob(String sha256, long size) {
+    }
+    
+    public Blob put(String content) throws IOException {
+        return put(content.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public Blob put(byte[] content) throws IOException {
+        return put(new ByteArrayInputStream(content));
+    }
+    
+    /**
+     * Stores the stream's content unless the store already has it. The data
+     * is hashed while it is compressed into a temporary file, then renamed
+     * into place, so a blob is never seen half written.
+     */
+    public Blob put(InputStream content) throws IOException {
+        Files.createDirectories(blobDir);
+        Path temp = Files.createTempFile(blobDir, "upload", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            
+            Path blob = blobPath(hash);
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                try {
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // stored concurrently by someone else
+                }
+            }
+            return new Blob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public InputStream open(String hash) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(blobPath(hash)), BUFFER_SIZE);
+    }
+    
+    /**
+     * For small data such as samples shown on the contest page.
+     */
+    public String readString(String hash) throws IOException {
+        try (InputStream in = open(hash)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * The uncompressed, read-only copy of a blob, unpacked on first use.
+     */
+    public Path plainFile(String hash) throws IOException {
+        Path plain = plainDir.resolve(hash.substring(0, 2)).resolve(hash);
+        if (Files.exists(plain)) {
+            return plain;
+        }
+        
+        Files.createDirectories(plain.getParent());
+        Path temp = Files.createTempFile(plain.getParent(), hash, ".tmp");
+        try {
+            try (InputStream in = open(hash); OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            readOnly(temp);
+            try {
+                Files.move(temp, plain, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // unpacked concurrently by another judge thread
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return plain;
+    }
+    
+    /**
+     * Puts a blob's content at {@code target}: a symlink to the read-only
+     * copy, or a plain copy where symlinks cannot be made.
+     */
+    public void link(String hash, Path target) throws IOException {
+        link(plainFile(hash), target);
+    }
+    
+    /**
+     * Same, for a read-only copy already looked up with {@link #plainFile}.
+     */
+    public void link(Path plain, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createSymbolicLink(target, plain);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(plain, target);
+        }
+    }
+    
+    /**
+     * Readable by everyone, since sandboxed programs may run as another user.
+     */
+    private static void readOnly(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("r--r--r--"));
+        } catch (UnsupportedOperationException e) {
+            file.toFile().setReadOnly();
+        }
+    }
+    
+    private Path blobPath(String hash) {
+        return blobDir.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.TestCase;
+import com.example.onlinejudge.repository.ProblemRepository;
+import com.example.onlinejudge.repository.TestCaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test sets of recently judged problems, shared by all judge threads of this
+ * node. Each entry holds the read-only copies of a problem's inputs and
+ * expected outputs from the {@link TestDataStore}, memory-mapped, so a hot
+ * problem is looked up once and then judged straight from the page cache:
+ * comparators read the mapped expected outputs and sandboxes read the same
+ * files through their symlinks. Entries are keyed by problem and a digest
+ * of its tests, so editing a test set simply makes a new entry. The mapped
+ * size is bounded by {@code judge.test-cache.max-size}, evicting the least
+ * recently used test sets; problems of live and upcoming contests are mapped
+ * and paged in ahead of time.
+ */
+@Service
+@Slf4j
+public class TestSetCache {
+    
+    private final TestCaseRepository testCaseRepository;
+    private final ProblemRepository problemRepository;
+    private final TestDataStore testDataStore;
+    private final JudgeProperties.TestCache properties;
+    
+    private final Map<TestSetKey, TestSet> testSets = new ConcurrentHashMap<>();
+    private final AtomicLong mappedBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong(); // orders uses for LRU
+    
+    public TestSetCache(TestCaseRepository testCaseRepository,
+                        ProblemRepository problemRepository,
+                        TestDataStore testDataStore,
+                        JudgeProperties judgeProperties,
+                        MeterRegistry meterRegistry) {
+        this.testCaseRepository = testCaseRepository;
+        this.problemRepository = problemRepository;
+        this.testDataStore = testDataStore;
+        this.properties = judgeProperties.getTestCache();
+        Gauge.builder("judge.test-cache.mapped", mappedBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * The problem's current test set, in test case id order. Reads only the
+     * test metadata; the data is mapped on the first use of this version.
+     */
+    public TestSet get(Long problemId) throws IOException {
+        List<TestCase> testCases = new ArrayList<>(testCaseRepository.findByProblemId(problemId));
+        testCases.sort(Comparator.comparing(TestCase::getId));
+        String version = version(testCases);
+        if (!properties.isEnabled()) {
+            return load(version, testCases, false);
+        }
+        TestSetKey key = new TestSetKey(problemId, version);
+        
+        TestSet testSet;
+        try {
+            // Threads judging the same problem wait for one of them to map it
+            testSet = testSets.computeIfAbsent(key, k -> {
+                TestSet loaded = load(version, testCases, true);
+                mappedBytes.addAndGet(loaded.getBytes());
+                return loaded;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        testSet.lastUsed = clock.incrementAndGet();
+        evict(key);
+        return testSet;
+    }
+    
+    /**
+     * Maps the test sets of contests that are running or start within
+     * {@code judge.test-cache.warm-ahead}, and pages them in, so the first
+     * submissions after the start do not each wait for the disk.
+     */
+    @Scheduled(fixedDelayString = "${judge.test-cache.warm-interval-ms:60000}")
+    public void warmLiveContests() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long problemId : problemRepository.findIdsOfLiveContests(now, now.plus(properties.getWarmAhead()))) {
+            try {
+                get(problemId).load();
+            } catch (Exception e) {
+                log.warn("Could not warm the test set of problem {}: {}", problemId, e.getMessage());
+            }
+        }
+    }
+    
+    private TestSet load(String version, List<TestCase> testCases, boolean mapped) {
+        try {
+            List<CachedTest> tests = new ArrayList<>(testCases.size());
+            long bytes = 0;
+            for (TestCase testCase : testCases) {
+                Path inputFile = testDataStore.plainFile(testCase.getInputHash());
+                Path expectedFile = testDataStore.plainFile(testCase.getExpectedOutputHash());
+                tests.add(new CachedTest(testCase.getId(),
+                        inputFile, mapped ? map(inputFile, testCase.getInputSize()) : null,
+                        expectedFile, mapped ? map(expectedFile, testCase.getExpectedOutputSize()) : null));
+                bytes += testCase.getInputSize() + testCase.getExpectedOutputSize();
+            }
+            return new TestSet(version, tests, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Read-only mapping of the whole file, or null when it is too large for
+     * one buffer; such data is read from the file instead. The mapping
+     * stays valid after the channel is closed.
+     */
+    private MappedByteBuffer map(Path file, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+    
+    /**
+     * Drops older versions of the problem just used, then the least recently
+     * used test sets until the mapped total fits the budget again. Buffers
+     * are unmapped once the garbage collector finds them unused, so judges
+     * still holding an evicted set can finish with it.
+     */
+    private void evict(TestSetKey current) {
+        for (TestSetKey key : testSets.keySet()) {
+            if (key.problemId().equals(current.problemId()) && !key.equals(current)) {
+                remove(key);
+            }
+        }
+        
+        long budget = properties.getMaxSize().toBytes();
+        while (mappedBytes.get() > budget) {
+            TestSetKey oldest = null;
+            long oldestUse = Long.MAX_VALUE;
+            for (Map.Entry<TestSetKey, TestSet> entry : testSets.entrySet()) {
+                if (!entry.getKey().equals(current) && entry.getValue().lastUsed < oldestUse) {
+                    oldest = entry.getKey();
+                    oldestUse = entry.getValue().lastUsed;
+                }
+            }
+            if (oldest == null) {
+                return; // only the set in use is left, however large
+            }
+            remove(oldest);
+        }
+    }
+    
+    private void remove(TestSetKey key) {
+        TestSet removed = testSets.remove(key);
+        if (removed != null) {
+            mappedBytes.addAndGet(-removed.getBytes());
+        }
+    }
+    
+    /**
+     * Digest of the test case ids and content hashes, which changes whenever
+     * a test is added, removed or replaced.
+     */
+    private static String version(List<TestCase> testCases) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (TestCase testCase : testCases) {
+                digest.update((testCase.getId() + ":" + testCase.getInputHash() + ":"
+                        + testCase.getExpectedOutputHash() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private record TestSetKey(Long problemId, String version) {
+    }
+    
+    /**
+     * One test: its unpacked files, and their mappings where the cache is
+     * enabled. Buffers are shared; read them through {@link ByteBuffer#duplicate()}.
+     */
+    public record CachedTest(Long testCaseId, Path inputFile, ByteBuffer input,
+                             Path expectedFile, ByteBuffer expectedOutput) {
+    }
+    
+    @Getter
+    public static class TestSet {
+        private final String version; // digest of the test ids and content hashes
+        private final List<CachedTest> tests;
+        private final long bytes;
+        private volatile long lastUsed;
+        private volatile boolean loaded;
+        
+        TestSet(String version, List<CachedTest> tests, long bytes) {
+            this.version = version;
+            this.tests = tests;
+            this.bytes = bytes;
+        }
+        
+        /**
+         * Pages the mapped data into memory, once; the kernel may drop the
+         * pages again under memory pressure.
+         */
+        void load() {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            for (CachedTest test : tests) {
+                if (test.input() instanceof MappedByteBuffer input) {
+                    input.load();
+                }
+                if (test.expectedOutput() instanceof MappedByteBuffer expected) {
+                    expected.load();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.Problem;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.model.SubmissionTestResult;
+import com.example.onlinejudge.repository.ReusableVerdict;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import com.example.onlinejudge.repository.SubmissionTestResultRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verdicts of byte-identical resubmissions, reused instead of judged again.
+ * A verdict is keyed by everything that decides it: the code and language,
+ * the problem's test set version, its limits and how outputs are checked.
+ * The submissions table is the cache: {@link VerdictWriter} stores the key
+ * with every verdict that may be reused, and a submission with the same key
+ * copies the latest such verdict and its per-test results. So the cache is
+ * shared by all judge nodes, survives restarts, and a changed test set or
+ * checker simply stops matching.
+ */
+@Service
+@Slf4j
+public class VerdictCache {
+    
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionTestResultRepository testResultRepository;
+    private final JudgeProperties.VerdictCache properties;
+    private final Counter hits;
+    
+    public VerdictCache(SubmissionRepository submissionRepository,
+                        SubmissionTestResultRepository testResultRepository,
+                        JudgeProperties judgeProperties,
+                        MeterRegistry meterRegistry) {
+        this.submissionRepository = submissionRepository;
+        this.testResultRepository = testResultRepository;
+        this.properties = judgeProperties.getVerdictCache();
+        this.hits = Counter.builder("judge.verdict-cache.hits")
+                .description("Submissions given the verdict of an identical earlier submission")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * The key for judging this submission against the given test set, or
+     * null when verdicts are not reused.
+     */
+    public String key(Submission submission, Problem problem, String testSetVersion) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        update(digest, submission.getLanguage());
+        update(digest, submission.getCode());
+        update(digest, testSetVersion);
+        update(digest, problem.getTimeLimit() + "s " + problem.getMemoryLimit() + "MB");
+        if (problem.getCheckerSource() != null) {
+            update(digest, "checker " + problem.getCheckerLanguage());
+            update(digest, problem.getCheckerSource());
+        } else {
+            update(digest, problem.getCompareMode() + " " + problem.getFloatAbsoluteError() + " "
+                    + problem.getFloatRelativeError());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    /**
+     * The verdict of the latest other submission judged under this key, for
+     * this submission, or null if there is none.
+     */
+    public SubmissionVerdict find(Submission submission, String key) {
+        if (key == null) {
+            return null;
+        }
+        List<ReusableVerdict> found = submissionRepository.findReusableVerdicts(key, submission.getId(),
+                PageRequest.of(0, 1));
+        if (found.isEmpty()) {
+            return null;
+        }
+        ReusableVerdict source = found.get(0);
+        
+        List<SubmissionTestResult> tests = new ArrayList<>();
+        for (SubmissionTestResult test : testResultRepository.findBySubmissionIdOrderByTestNumberAsc(source.getId())) {
+            tests.add(new SubmissionTestResult(null, null, test.getTestNumber(), test.getStatus(),
+                    test.getExitCode(), test.getWallTimeMs(), test.getCpuTimeMs(), test.getPeakMemoryKb()));
+        }
+        hits.increment();
+        log.debug("Submission {} reuses the verdict of identical submission {}", submission.getId(), source.getId());
+        return new SubmissionVerdict(submission.getId(), submission.getContest().getId(), submission.getUsername(),
+                source.getStatus(), source.getResult(), source.getErrorMessage(), source.getExecutionTime(),
+                source.getMemoryUsed(), tests, key);
+    }
+    
+    /**
+     * Attaches the key to a verdict unless another run could come out
+     * differently: time limit verdicts, and results whose slowest test took
+     * more than {@code judge.verdict-cache.max-time-fraction} of the limit.
+     */
+    public SubmissionVerdict reusable(SubmissionVerdict verdict, String key, int timeLimitSeconds) {
+        if (key == null || verdict.getStatus() == Submission.SubmissionStatus.TIME_LIMIT_EXCEEDED) {
+            return verdict;
+        }
+        Integer slowestMs = verdict.getExecutionTime();
+        if (slowestMs != null && slowestMs > timeLimitSeconds * 1000 * properties.getMaxTimeFraction()) {
+            return verdict;
+        }
+        return verdict.withVerdictKey(key);
+    }
+    
+    // Length-prefixed, so no two different inputs hash the same bytes
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        digest.update((bytes.length + ":").getBytes(StandardCharsets.UTF_8));
+        digest.update(bytes);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.onlinejudge.service;
+
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.model.SubmissionTestResult;
+import com.example.onlinejudge.repository.JudgeJobRepository;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import com.example.onlinejudge.repository.SubmissionTestResultRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes judge verdicts on a single thread, in small batches. Workers hand
+ * their verdict over and move on to the next job. Verdicts that arrive
+ * while a batch is being written go out together in the next transaction,
+ * so under load many verdicts share one commit and an idle judge waits for
+ * nothing. Each verdict is one narrow UPDATE plus its per-test rows,
+ * written in the same transaction as its job's completion and only while
+ * this node still holds the lease. A verdict never lands on a job another
+ * node has taken over, and one lost before commit just gets its job
+ * requeued. If a batch fails, its verdicts are written again one per
+ * transaction, so a verdict that cannot be written only loses itself.
+ */
+@Service
+@Slf4j
+public class VerdictWriter {
+    
+    private final JudgeJobRepository judgeJobRepository;
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionTestResultRepository testResultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionProgressTracker progressTracker;
+    private final int batchSize;
+    
+    private final BlockingQueue<PendingVerdict> queue = new LinkedBlockingQueue<>();
+    // Jobs whose verdict is queued or being written; their leases are still renewed
+    private final Set<Long> pendingJobs = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("verdict-writer-"));
+    
+    public VerdictWriter(JudgeJobRepository judgeJobRepository,
+                         SubmissionRepository submissionRepository,
+                         SubmissionTestResultRepository testResultRepository,
+                         TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher,
+                         SubmissionProgressTracker progressTracker,
+                         JudgeProperties judgeProperties) {
+        this.judgeJobRepository = judgeJobRepository;
+        this.submissionRepository = submissionRepository;
+        this.testResultRepository = testResultRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.progressTracker = progressTracker;
+        this.batchSize = Math.max(1, judgeProperties.getQueue().getVerdictBatchSize());
+        writer.execute(this::writeLoop);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+    
+    public void submit(Long jobId, String owner, SubmissionVerdict verdict) {
+        pendingJobs.add(jobId);
+        queue.add(new PendingVerdict(jobId, owner, verdict));
+    }
+    
+    public Set<Long> pendingJobIds() {
+        return pendingJobs;
+    }
+    
+    /**
+     * Waits until every verdict handed over so far is written, or the timeout
+     * passes. Used on shutdown before the node gives up its leases.
+     */
+    public void drain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pendingJobs.isEmpty() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+    }
+    
+    private void writeLoop() {
+        List<PendingVerdict> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Failed to publish a batch of {} written verdicts: {}", batch.size(), e.getMessage());
+            } finally {
+                for (PendingVerdict pending : batch) {
+                    pendingJobs.remove(pending.jobId);
+                    progressTracker.remove(pending.verdict.getSubmissionId());
+                }
+                batch.clear();
+            }
+        }
+    }
+    
+    private void write(List<PendingVerdict> batch) {
+        List<SubmissionVerdict> written;
+        try {
+            written = writeTransaction(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logFailure(batch.get(0), e);
+                return;
+            }
+            log.warn("Failed to write {} verdicts together, writing them one by one: {}", batch.size(), e.getMessage());
+            written = new ArrayList<>(batch.size());
+            for (PendingVerdict pending : batch) {
+                try {
+                    written.addAll(writeTransaction(List.of(pending)));
+                } catch (RuntimeException single) {
+                    logFailure(pending, single);
+                }
+            }
+        }
+        
+        // Listeners such as the leaderboard read the verdict back, so only after commit
+        for (SubmissionVerdict verdict : written) {
+            eventPublisher.publishEvent(new SubmissionJudgedEvent(verdict.getSubmissionId(), verdict.getContestId(),
+                    verdict.getUsername(), verdict.getStatus(), verdict.getResult(), verdict.getErrorMessage()));
+        }
+    }
+    
+    private List<SubmissionVerdict> writeTransaction(List<PendingVerdict> batch) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<SubmissionVerdict> accepted = new ArrayList<>(batch.size());
+            for (PendingVerdict pending : batch) {
+                SubmissionVerdict verdict = pending.verdict;
+                if (judgeJobRepository.complete(pending.jobId, pending.owner, now) != 1) {
+                    log.warn("Lease on submission {} was lost while judging it", verdict.getSubmissionId());
+                    continue;
+                }
+                submissionRepository.updateVerdict(verdict.getSubmissionId(), verdict.getStatus(),
+                        verdict.getResult(), verdict.getErrorMessage(),
+                        verdict.getExecutionTime(), verdict.getMemoryUsed(), verdict.getVerdictKey());
+                saveTests(verdict);
+                accepted.add(verdict);
+            }
+            return accepted;
+        });
+    }
+    
+    private void logFailure(PendingVerdict pending, RuntimeException e) {
+        log.error("Failed to write the verdict of submission {}; its job is rejudged once the lease expires: {}",
+                pending.verdict.getSubmissionId(), e.getMessage());
+    }
+    
+    private void saveTests(SubmissionVerdict verdict) {
+        testResultRepository.deleteBySubmissionId(verdict.getSubmissionId()); // results of an earlier judging
+        if (verdict.getTests().isEmpty()) {
+            return;
+        }
+        Submission submission = submissionRepository.getReferenceById(verdict.getSubmissionId());
+        for (SubmissionTestResult test : verdict.getTests()) {
+            test.setSubmission(submission);
+        }
+        testResultRepository.saveAll(verdict.getTests());
+    }
+    
+    @AllArgsConstructor
+    private static class PendingVerdict {
+        private final Long jobId;
+        private final String owner;
+        private final SubmissionVerdict verdict;
+    }
+}
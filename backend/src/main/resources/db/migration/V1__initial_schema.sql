@@ -0,0 +1,66 @@
+-- Schema as previously generated by Hibernate from the entities in
+-- com.example.onlinejudge.model. Existing databases created that way are
+-- baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE contests (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description TEXT,
+    start_time  TIMESTAMP(6) NOT NULL,
+    end_time    TIMESTAMP(6) NOT NULL,
+    is_active   BOOLEAN      NOT NULL
+);
+
+CREATE TABLE problems (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    description   TEXT,
+    input_format  TEXT,
+    output_format TEXT,
+    time_limit    INTEGER      NOT NULL,
+    memory_limit  INTEGER      NOT NULL,
+    difficulty    INTEGER      NOT NULL,
+    contest_id    BIGINT       NOT NULL REFERENCES contests (id)
+);
+
+CREATE TABLE test_cases (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    input           TEXT    NOT NULL,
+    expected_output TEXT    NOT NULL,
+    is_hidden       BOOLEAN NOT NULL,
+    problem_id      BIGINT  NOT NULL REFERENCES problems (id)
+);
+
+CREATE TABLE submissions (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code           TEXT         NOT NULL,
+    language       VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    result         TEXT,
+    execution_time INTEGER,
+    memory_used    INTEGER,
+    error_message  TEXT,
+    submitted_at   TIMESTAMP(6) NOT NULL,
+    problem_id     BIGINT       NOT NULL REFERENCES problems (id),
+    contest_id     BIGINT       NOT NULL REFERENCES contests (id),
+    username       VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE judge_jobs (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    submission_id    BIGINT       NOT NULL REFERENCES submissions (id),
+    status           VARCHAR(255) NOT NULL,
+    lane             VARCHAR(255) NOT NULL,
+    username         VARCHAR(255) NOT NULL,
+    sched_key        BIGINT       NOT NULL,
+    attempts         INTEGER      NOT NULL,
+    lease_owner      VARCHAR(255),
+    lease_expires_at TIMESTAMP(6),
+    enqueued_at      TIMESTAMP(6) NOT NULL,
+    claimed_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6)
+);
+
+CREATE INDEX idx_judge_jobs_status_sched_key ON judge_jobs (status, sched_key);
+CREATE INDEX idx_judge_jobs_submission ON judge_jobs (submission_id);
+CREATE INDEX idx_judge_jobs_completed_at ON judge_jobs (completed_at);
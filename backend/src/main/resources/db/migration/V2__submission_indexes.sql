@@ -0,0 +1,28 @@
+-- Indexes for the submission queries on the judging, listing and
+-- leaderboard paths. IF NOT EXISTS because databases baselined from
+-- Hibernate DDL may already have the listing indexes.
+
+-- Listings of a contest, newest first (SubmissionRepository.findSummariesBefore)
+CREATE INDEX IF NOT EXISTS idx_submissions_contest_submitted
+    ON submissions (contest_id, submitted_at, id);
+
+-- Per-user listings, leaderboard rows and findByContestIdAndUsername;
+-- also serves every (contest_id, username) lookup as a prefix
+CREATE INDEX IF NOT EXISTS idx_submissions_contest_user_submitted
+    ON submissions (contest_id, username, submitted_at, id);
+
+-- Accepted submissions of a contest in submission order
+CREATE INDEX IF NOT EXISTS idx_submissions_contest_status_submitted
+    ON submissions (contest_id, status, submitted_at);
+
+-- Queue recovery and the pending backlog, oldest first
+CREATE INDEX IF NOT EXISTS idx_submissions_status_submitted
+    ON submissions (status, submitted_at, id);
+
+-- Per-user capacity check (countByUsernameAndStatusIn)
+CREATE INDEX IF NOT EXISTS idx_submissions_username_status
+    ON submissions (username, status);
+
+-- Rejudges and findByProblemId
+CREATE INDEX IF NOT EXISTS idx_submissions_problem
+    ON submissions (problem_id);
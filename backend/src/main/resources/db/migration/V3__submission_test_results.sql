@@ -0,0 +1,15 @@
+-- Per-test outcome and measurements; the submission row keeps the maxima
+-- (execution_time in ms, memory_used in MB).
+
+CREATE TABLE submission_test_results (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    submission_id  BIGINT       NOT NULL REFERENCES submissions (id),
+    test_number    INTEGER      NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    exit_code      INTEGER      NOT NULL,
+    wall_time_ms   INTEGER,
+    cpu_time_ms    INTEGER,
+    peak_memory_kb INTEGER
+);
+
+CREATE INDEX idx_submission_test_results_submission ON submission_test_results (submission_id);
@@ -0,0 +1,6 @@
+-- How outputs are compared per problem; LINES matches the old trimmed comparison
+-- closest. The float errors only apply in FLOAT mode, NULL meaning the default.
+
+ALTER TABLE problems ADD COLUMN compare_mode VARCHAR(255) DEFAULT 'LINES' NOT NULL;
+ALTER TABLE problems ADD COLUMN float_absolute_error DOUBLE PRECISION;
+ALTER TABLE problems ADD COLUMN float_relative_error DOUBLE PRECISION;
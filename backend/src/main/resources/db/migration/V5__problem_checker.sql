@@ -0,0 +1,5 @@
+-- Optional special judge per problem: a checker program that replaces the
+-- built-in compare mode.
+
+ALTER TABLE problems ADD COLUMN checker_source TEXT;
+ALTER TABLE problems ADD COLUMN checker_language VARCHAR(255);
@@ -0,0 +1,6 @@
+-- Key under which a verdict may be reused by identical submissions
+-- (VerdictCache); null for verdicts that must not be reused.
+
+ALTER TABLE submissions ADD COLUMN verdict_key VARCHAR(64);
+
+CREATE INDEX idx_submissions_verdict_key ON submissions (verdict_key);
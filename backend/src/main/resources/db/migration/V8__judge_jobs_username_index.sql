@@ -0,0 +1,2 @@
+-- Per-user capacity check (JudgeJobRepository.countOpenInLanesByUsername)
+CREATE INDEX idx_judge_jobs_username_status ON judge_jobs (username, status);
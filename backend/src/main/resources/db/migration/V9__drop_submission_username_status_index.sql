@@ -0,0 +1,6 @@
+-- idx_submissions_username_status (V2) was added for a per-user capacity
+-- check on submissions; capacity is counted on judge_jobs since V8
+-- (idx_judge_jobs_username_status) and no query filters submissions by
+-- username without a contest, so the index only slowed down writes.
+
+DROP INDEX IF EXISTS idx_submissions_username_status;
@@ -0,0 +1,181 @@
+package com.example.onlinejudge.benchmark;
+
+import com.example.onlinejudge.OnlinejudgeApplication;
+import com.example.onlinejudge.model.Submission.SubmissionStatus;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the database with synthetic submissions and reports the latency of
+ * the submission queries on the hot paths, then exits. Starts the
+ * application with the "benchmark" profile, which points at a database file
+ * of its own. From backend/:
+ * <pre>
+ * mvn spring-boot:test-run \
+ *     -Dspring-boot.test-run.main-class=com.example.onlinejudge.benchmark.SubmissionQueryBenchmark
+ * </pre>
+ * The data is kept, so later runs only measure.
+ */
+@Component
+@Profile("benchmark")
+@Order(1) // after DataInitializer has seeded a contest
+@Slf4j
+public class SubmissionQueryBenchmark implements CommandLineRunner {
+    
+    private static final int INSERT_BATCH = 10_000;
+    private static final SubmissionStatus[] JUDGED = {
+            SubmissionStatus.ACCEPTED, SubmissionStatus.WRONG_ANSWER, SubmissionStatus.TIME_LIMIT_EXCEEDED,
+            SubmissionStatus.RUNTIME_ERROR, SubmissionStatus.COMPILATION_ERROR
+    };
+    
+    private final SubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long submissions;
+    private final int users;
+    private final int iterations;
+    private final Random random = new Random(42);
+    
+    public SubmissionQueryBenchmark(SubmissionRepository submissionRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    @Value("${benchmark.submissions:1000000}") long submissions,
+                                    @Value("${benchmark.users:10000}") int users,
+                                    @Value("${benchmark.iterations:200}") int iterations) {
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.submissions = submissions;
+        this.users = users;
+        this.iterations = iterations;
+    }
+    
+    public static void main(String[] args) {
+        // The runner measures during startup; closing the context then ends the run
+        SpringApplication.from(OnlinejudgeApplication::main)
+                .withAdditionalProfiles("benchmark")
+                .run(args)
+                .getApplicationContext()
+                .close();
+    }
+    
+    @Override
+    public void run(String... args) {
+        Long contestId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM contests", Long.class);
+        List<Long> problemIds = jdbcTemplate.queryForList(
+                "SELECT id FROM problems WHERE contest_id = ?", Long.class, contestId);
+        
+        fill(contestId, problemIds);
+        
+        measure("contest listing, first page", () -> submissionRepository.findSummariesBefore(
+                contestId, null, EnumSet.allOf(SubmissionStatus.class),
+                LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, PageRequest.of(0, 51)));
+        measure("contest listing, accepted only", () -> submissionRepository.findSummariesBefore(
+                contestId, null, List.of(SubmissionStatus.ACCEPTED),
+                LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, PageRequest.of(0, 51)));
+        measure("user listing, first page", () -> submissionRepository.findUserSummariesBefore(
+                contestId, randomUser(), null, EnumSet.allOf(SubmissionStatus.class),
+                LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE, PageRequest.of(0, 51)));
+        measure("leaderboard row of one user", () ->
+                submissionRepository.findOutcomesByContestAndUsername(contestId, randomUser()));
+        measure("submissions of one user", () ->
+                submissionRepository.findByContestIdAndUsername(contestId, randomUser()));
+        measure("startup recovery, pending and running", () ->
+                submissionRepository.findByStatusIn(List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING)));
+        measure("users with an accepted submission", () ->
+                submissionRepository.findUsersWithAcceptedSubmissions(contestId));
+        // Loads every accepted submission of the contest as an entity, so far fewer runs
+        measure("accepted submissions of the contest", Math.max(1, iterations / 10), () ->
+                submissionRepository.findAcceptedSubmissionsByContest(contestId));
+    }
+    
+    /**
+     * Inserts submissions up to the configured count with plain JDBC batches,
+     * spread over the contest's problems, the configured number of users and
+     * the last 30 days. About 1% stay PENDING, like a busy queue.
+     */
+    private void fill(Long contestId, List<Long> problemIds) {
+        long existing = submissionRepository.count();
+        if (existing >= submissions) {
+            log.info("Benchmark database already holds {} submissions", existing);
+            return;
+        }
+        
+        log.info("Inserting {} submissions", submissions - existing);
+        long start = System.nanoTime();
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        long spanSeconds = TimeUnit.DAYS.toSeconds(30);
+        
+        for (long done = existing; done < submissions; ) {
+            int batchSize = (int) Math.min(INSERT_BATCH, submissions - done);
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                SubmissionStatus status = random.nextInt(100) == 0
+                        ? SubmissionStatus.PENDING
+                        : JUDGED[random.nextInt(JUDGED.length)];
+                batch.add(new Object[]{
+                        "print(input())",
+                        "python",
+                        status.name(),
+                        status == SubmissionStatus.PENDING ? null : status.name(),
+                        Timestamp.valueOf(from.plusSeconds((long) (random.nextDouble() * spanSeconds))),
+                        problemIds.get(random.nextInt(problemIds.size())),
+                        contestId,
+                        randomUser()
+                });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO submissions (code, language, status, result, submitted_at, "
+                    + "problem_id, contest_id, username) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            done += batchSize;
+            if (done % (INSERT_BATCH * 10L) == 0) {
+                log.info("  {} / {}", done, submissions);
+            }
+        }
+        log.info("Inserted in {}s", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+    
+    private void measure(String name, Runnable query) {
+        measure(name, iterations, query);
+    }
+    
+    private void measure(String name, int iterations, Runnable query) {
+        for (int i = 0; i < Math.min(iterations, 20); i++) {
+            query.run(); // warm-up
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            query.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        log.info("{}: p50 {} ms, p95 {} ms, p99 {} ms over {} runs",
+                name, millis(nanos, 0.50), millis(nanos, 0.95), millis(nanos, 0.99), iterations);
+    }
+    
+    /**
+     * The percentile of the sorted timings in milliseconds, to two decimals.
+     */
+    private double millis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return Math.round(sorted[Math.max(0, index)] / 10_000.0) / 100.0;
+    }
+    
+    private String randomUser() {
+        return "user" + random.nextInt(users);
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.onlinejudge.checker;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputComparatorTest {
+
+    @Nested
+    class Exact {
+
+        private final OutputComparator comparator = new OutputComparator(CompareMode.EXACT, null, null);
+
+        @Test
+        void identicalOutputPasses() throws IOException {
+            assertAccepted(comparator, "1 2\n3\n", "1 2\n3\n");
+            assertAccepted(comparator, "", "");
+        }
+
+        @Test
+        void trailingWhitespaceFails() throws IOException {
+            assertRejected(comparator, "1\n", "1 \n", "line 1, column 2 differs");
+        }
+
+        @Test
+        void crlfFails() throws IOException {
+            assertRejected(comparator, "1\n2\n", "1\r\n2\r\n", "line 1, column 2 differs");
+        }
+
+        @Test
+        void missingFinalNewlineFails() throws IOException {
+            assertRejected(comparator, "1\n", "1", "output ends early, more expected on line 1");
+        }
+
+        @Test
+        void extraOutputFails() throws IOException {
+            assertRejected(comparator, "1\n", "1\n2\n", "unexpected extra output on line 2");
+        }
+    }
+
+    @Nested
+    class Lines {
+
+        private final OutputComparator comparator = new OutputComparator(CompareMode.LINES, null, null);
+
+        @Test
+        void isTheDefaultMode() throws IOException {
+            assertRejected(new OutputComparator(null, null, null), "1 2\n", "1  2\n", "line 1 differs");
+        }
+
+        @Test
+        void trailingWhitespaceOnALinePasses() throws IOException {
+            assertAccepted(comparator, "1 2\n3\n", "1 2   \n3\t\n");
+            assertAccepted(comparator, "1 2  \n3\n", "1 2\n3\n");
+        }
+
+        @Test
+        void crlfPasses() throws IOException {
+            assertAccepted(comparator, "1 2\n3\n", "1 2\r\n3\r\n");
+            assertAccepted(comparator, "1 2\r\n3\r\n", "1 2\n3\n");
+        }
+
+        @Test
+        void missingFinalNewlinePasses() throws IOException {
+            assertAccepted(comparator, "1\n2\n", "1\n2");
+            assertAccepted(comparator, "1\n2", "1\n2\n");
+        }
+
+        @Test
+        void trailingBlankLinesPass() throws IOException {
+            assertAccepted(comparator, "1\n", "1\n\n\n");
+            assertAccepted(comparator, "1\n\n\n", "1");
+        }
+
+        @Test
+        void emptyOutput() throws IOException {
+            assertAccepted(comparator, "", "");
+            assertAccepted(comparator, "\n", "");
+            assertAccepted(comparator, "", " \n");
+            assertRejected(comparator, "5\n", "", "output ends early, more expected on line 1");
+            assertRejected(comparator, "", "5\n", "unexpected extra output on line 1");
+        }
+
+        @Test
+        void whitespaceInsideALineCounts() throws IOException {
+            assertRejected(comparator, "1 2\n", "1  2\n", "line 1 differs");
+            assertRejected(comparator, "1 2\n", " 1 2\n", "line 1 differs");
+        }
+
+        @Test
+        void blankLinesInsideTheOutputCount() throws IOException {
+            assertRejected(comparator, "1\n\n2\n", "1\n2\n", "line 2 differs");
+        }
+
+        @Test
+        void wrongValueIsReportedByLine() throws IOException {
+            assertRejected(comparator, "1\n2\n3\n", "1\n2\n4\n", "line 3 differs");
+        }
+    }
+
+    @Nested
+    class Tokens {
+
+        private final OutputComparator comparator = new OutputComparator(CompareMode.TOKENS, null, null);
+
+        @Test
+        void anyWhitespaceSeparates() throws IOException {
+            assertAccepted(comparator, "1 2\n3\n", "1\n2  3");
+            assertAccepted(comparator, "1 2\n", "  1\r\n\t2\r\n\r\n");
+        }
+
+        @Test
+        void emptyOutput() throws IOException {
+            assertAccepted(comparator, "", "\n\n");
+            assertRejected(comparator, "1\n", " \n", "output ends early, more expected on line 1");
+        }
+
+        @Test
+        void tokensMustMatchExactly() throws IOException {
+            assertRejected(comparator, "1 2 3\n", "1 2 3.0\n", "token 3 (line 1) differs");
+            assertRejected(comparator, "abc\n", "abcd\n", "token 1 (line 1) differs");
+            assertRejected(comparator, "abcd\n", "abc\n", "token 1 (line 1) differs");
+        }
+
+        @Test
+        void tokenCountMustMatch() throws IOException {
+            assertRejected(comparator, "1 2\n", "1 2 3\n", "unexpected extra output on line 1");
+            assertRejected(comparator, "1 2 3\n", "1 2\n", "output ends early, more expected on line 1");
+        }
+    }
+
+    @Nested
+    class Float {
+
+        @Test
+        void defaultErrorIsOneMillionth() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, null, null);
+            assertAccepted(comparator, "0.5\n", "0.5000005\n");
+            assertRejected(comparator, "0.5\n", "0.500002\n", "token 1 (line 1) differs");
+        }
+
+        @Test
+        void absoluteErrorBoundaryIsInclusive() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, 0.5, 0.0);
+            assertAccepted(comparator, "1\n", "1.5\n");
+            assertAccepted(comparator, "1\n", "0.5\n");
+            assertRejected(comparator, "1\n", "1.5001\n", "token 1 (line 1) differs");
+            assertRejected(comparator, "1\n", "0.4999\n", "token 1 (line 1) differs");
+        }
+
+        @Test
+        void relativeErrorBoundaryIsInclusive() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, 0.0, 0.25);
+            assertAccepted(comparator, "100\n", "125\n");
+            assertAccepted(comparator, "-100\n", "-75\n");
+            assertRejected(comparator, "100\n", "125.5\n", "token 1 (line 1) differs");
+            // Relative to the expected value, not the contestant's
+            assertRejected(comparator, "0\n", "0.001\n", "token 1 (line 1) differs");
+        }
+
+        @Test
+        void eitherErrorIsEnough() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, 0.01, 0.1);
+            assertAccepted(comparator, "0\n", "0.01\n");
+            assertAccepted(comparator, "1000\n", "1100\n");
+        }
+
+        @Test
+        void numberFormatsAreParsed() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, null, null);
+            assertAccepted(comparator, "1000 -2.5 0.125\n", "1e3 -2.50 +1.25E-1\n");
+        }
+
+        @Test
+        void specialValuesAreNotNumbers() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, 1.0, 1.0);
+            assertRejected(comparator, "1\n", "NaN\n", "token 1 (line 1) differs");
+            assertRejected(comparator, "1\n", "Infinity\n", "token 1 (line 1) differs");
+            assertRejected(comparator, "1\n", "0x1p0\n", "token 1 (line 1) differs");
+            assertAccepted(comparator, "NaN\n", "NaN\n"); // equal tokens match without parsing
+        }
+
+        @Test
+        void wordsAreComparedExactly() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, null, null);
+            assertAccepted(comparator, "YES 0.5\n", "YES 0.5000001\n");
+            assertRejected(comparator, "YES 0.5\n", "yes 0.5\n", "token 1 (line 1) differs");
+        }
+
+        @Test
+        void longTokensAreComparedExactly() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.FLOAT, 1.0, 1.0);
+            String digits = "1".repeat(100);
+            assertAccepted(comparator, digits + "\n", digits + "\n");
+            assertRejected(comparator, digits + "\n", digits + "2\n", "token 1 (line 1) differs");
+            assertRejected(comparator, digits + "\n", "1" + digits + "\n", "token 1 (line 1) differs");
+        }
+    }
+
+    @Nested
+    class Streaming {
+
+        @Test
+        void outputsLargerThanTheBufferInSmallReads() throws IOException {
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 50_000; i++) {
+                expected.append(i).append(' ').append(i * 0.5).append('\n');
+            }
+            String actual = expected.toString().replace("\n", " \r\n");
+            for (CompareMode mode : List.of(CompareMode.LINES, CompareMode.TOKENS, CompareMode.FLOAT)) {
+                OutputComparator comparator = new OutputComparator(mode, null, null);
+                CheckResult result = comparator.compare(stream(expected.toString()), trickle(actual));
+                assertThat(result.isAccepted()).as(mode.name()).isTrue();
+            }
+
+            String wrong = expected.toString().replace("\n49999 ", "\n49998 ");
+            CheckResult result = new OutputComparator(CompareMode.LINES, null, null)
+                    .compare(stream(expected.toString()), trickle(wrong));
+            assertThat(result.getMessage()).isEqualTo("line 50000 differs");
+        }
+
+        @Test
+        void expectedOutputInMemoryGivesTheSameResults() throws IOException {
+            OutputComparator comparator = new OutputComparator(CompareMode.LINES, null, null);
+            ByteBuffer expected = ByteBuffer.wrap("1 2\n3\n".getBytes(StandardCharsets.UTF_8));
+
+            assertThat(comparator.compare(expected, stream("1 2\r\n3")).isAccepted()).isTrue();
+            assertThat(comparator.compare(expected, stream("1 2\n4\n")).getMessage())
+                    .isEqualTo("line 2 differs");
+            assertThat(expected.position()).isZero(); // shared buffers are read through a duplicate
+        }
+
+        @Test
+        void checkReadsFilesAndTreatsAMissingOutputAsEmpty(@TempDir Path dir) throws IOException {
+            Path expected = Files.writeString(dir.resolve("1.ans"), "42\n");
+            Path written = Files.writeString(dir.resolve("1.out"), "42\n");
+            Path empty = Files.writeString(dir.resolve("2.ans"), "\n");
+            Path missing = dir.resolve("2.out");
+            Path expectedAgain = Files.writeString(dir.resolve("3.ans"), "42\n");
+
+            OutputComparator comparator = new OutputComparator(CompareMode.LINES, null, null);
+            List<CheckResult> results = comparator.check(List.of(
+                    new CheckTask("1", null, expected, written, null),
+                    new CheckTask("2", null, empty, missing, null),
+                    new CheckTask("3", null, expectedAgain, missing, null)));
+
+            assertThat(results).extracting(CheckResult::isAccepted).containsExactly(true, true, false);
+        }
+    }
+
+    private static void assertAccepted(OutputComparator comparator, String expected, String actual)
+            throws IOException {
+        CheckResult result = comparator.compare(stream(expected), stream(actual));
+        assertThat(result.isAccepted())
+                .as("expected %s, actual %s: %s", quote(expected), quote(actual), result.getMessage())
+                .isTrue();
+    }
+
+    private static void assertRejected(OutputComparator comparator, String expected, String actual, String message)
+            throws IOException {
+        CheckResult result = comparator.compare(stream(expected), stream(actual));
+        assertThat(result.isAccepted()).as("expected %s, actual %s", quote(expected), quote(actual)).isFalse();
+        assertThat(result.getMessage()).isEqualTo(message);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hands out at most 7 bytes per read, so tokens and line ends straddle
+     * buffer refills.
+     */
+    private static InputStream trickle(String content) {
+        return new FilterInputStream(stream(content)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 7));
+            }
+        };
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\r", "\\r").replace("\n", "\\n") + '"';
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.onlinejudge.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks ranks and range reads against a plain sorted list after every step
+ * of random inserts, removals and score changes, which is where span
+ * bookkeeping goes wrong.
+ */
+class RankedSkipListTest {
+
+    // Highest score first, then by name, like a leaderboard
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::name);
+
+    private record Entry(String name, int score) {
+    }
+
+    @Test
+    void emptyList() {
+        RankedSkipList<Entry> list = new RankedSkipList<>(ORDER);
+
+        assertThat(list.size()).isZero();
+        assertThat(list.rankOf(new Entry("alice", 1))).isZero();
+        assertThat(list.range(0, 10)).isEmpty();
+        assertThat(list.remove(new Entry("alice", 1))).isFalse();
+    }
+
+    @Test
+    void ranksFollowTheOrder() {
+        RankedSkipList<Entry> list = new RankedSkipList<>(ORDER);
+        list.add(new Entry("carol", 3));
+        list.add(new Entry("alice", 5));
+        list.add(new Entry("bob", 3));
+
+        assertThat(list.rankOf(new Entry("alice", 5))).isEqualTo(1);
+        assertThat(list.rankOf(new Entry("bob", 3))).isEqualTo(2);
+        assertThat(list.rankOf(new Entry("carol", 3))).isEqualTo(3);
+        assertThat(list.rankOf(new Entry("carol", 4))).isZero(); // same name, other score: not in the list
+        assertThat(list.range(1, 5)).containsExactly(new Entry("bob", 3), new Entry("carol", 3));
+        assertThat(list.range(3, 5)).isEmpty();
+    }
+
+    @Test
+    void matchesSortedListUnderRandomChanges() {
+        for (long seed = 0; seed < 20; seed++) {
+            checkRandomChanges(new Random(seed), 2000);
+        }
+    }
+
+    @Test
+    void matchesSortedListWhenLarge() {
+        checkRandomChanges(new Random(42), 20000);
+    }
+
+    private void checkRandomChanges(Random random, int steps) {
+        RankedSkipList<Entry> list = new RankedSkipList<>(ORDER);
+        List<Entry> expected = new ArrayList<>();
+        Map<String, Entry> byName = new HashMap<>();
+        int users = Math.max(10, steps / 10);
+
+        for (int step = 0; step < steps; step++) {
+            String name = "user" + random.nextInt(users);
+            Entry current = byName.get(name);
+            int action = random.nextInt(10);
+
+            if (current == null) {
+                Entry added = new Entry(name, random.nextInt(50));
+                list.add(added);
+                insertSorted(expected, added);
+                byName.put(name, added);
+            } else if (action < 3) {
+                assertThat(list.remove(current)).isTrue();
+                expected.remove(current);
+                byName.remove(name);
+            } else {
+                // A new verdict moves the user: remove the old standing, add the new one
+                Entry updated = new Entry(name, current.score() + random.nextInt(5));
+                assertThat(list.remove(current)).isTrue();
+                list.add(updated);
+                expected.remove(current);
+                insertSorted(expected, updated);
+                byName.put(name, updated);
+            }
+
+            assertThat(list.size()).isEqualTo(expected.size());
+            // Full checks are quadratic; sample them in the larger runs
+            if (steps <= 2000 || step % 500 == 0 || step == steps - 1) {
+                assertMatches(list, expected, random);
+            }
+        }
+    }
+
+    private void assertMatches(RankedSkipList<Entry> list, List<Entry> expected, Random random) {
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(list.rankOf(expected.get(i))).as("rank of %s", expected.get(i)).isEqualTo(i + 1);
+        }
+        assertThat(list.range(0, expected.size() + 1)).isEqualTo(expected);
+
+        for (int i = 0; i < 5; i++) {
+            int offset = random.nextInt(expected.size() + 3);
+            int limit = random.nextInt(20);
+            List<Entry> page = expected.subList(Math.min(offset, expected.size()),
+                    Math.min(offset + limit, expected.size()));
+            assertThat(list.range(offset, limit)).as("range(%d, %d)", offset, limit).isEqualTo(page);
+        }
+        assertThat(list.rankOf(new Entry("nobody", -1))).isZero();
+    }
+
+    private static void insertSorted(List<Entry> entries, Entry entry) {
+        int index = 0;
+        while (index < entries.size() && ORDER.compare(entries.get(index), entry) < 0) {
+            index++;
+        }
+        entries.add(index, entry);
+    }
+}
@@ -1,11 +1,14 @@
 'use client';
 
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useParams } from 'next/navigation';
-import { contestApi, Contest, Problem, Submission, LeaderboardEntry } from '@/lib/api';
+import { contestApi, Contest, Problem, SubmissionSummary, LeaderboardEntry, LeaderboardDelta, SubmissionStatusUpdate } from '@/lib/api';
 import toast from 'react-hot-toast';
+import axios from 'axios';
 import MonacoEditor from '@monaco-editor/react';
 
+const LEADERBOARD_SIZE = 10;
+
 export default function ContestPage() {
   const params = useParams();
   const contestId = parseInt(params.contestId as string);
@@ -33,10 +36,13 @@ int main() {
     return 0;
 }`
   };
-  const [submissions, setSubmissions] = useState<Submission[]>([]);
+  const [submissions, setSubmissions] = useState<SubmissionSummary[]>([]);
   const [leaderboard, setLeaderboard] = useState<LeaderboardEntry[]>([]);
+  const [myRank, setMyRank] = useState<LeaderboardEntry | null>(null);
+  const leaderboardVersion = useRef(0);
   const [loading, setLoading] = useState(true);
   const [submitting, setSubmitting] = useState(false);
+  const [judgeProgress, setJudgeProgress] = useState<string | null>(null);
   const [username, setUsername] = useState('');
 
   useEffect(() => {
@@ -50,11 +56,16 @@ int main() {
   }, [contestId]);
 
   useEffect(() => {
-    const interval = setInterval(() => {
-      loadLeaderboard();
-    }, 15000); // Update every 15 seconds
+    const events = contestApi.watchLeaderboard(contestId);
+
+    // (Re)connected or told we fell behind: start over from a fresh page
+    events.onopen = () => loadLeaderboard();
+    events.addEventListener('resync', () => loadLeaderboard());
+    events.addEventListener('delta', (event) => {
+      applyLeaderboardDelta(JSON.parse((event as MessageEvent).data));
+    });
 
-    return () => clearInterval(interval);
+    return () => events.close();
   }, [contestId]);
 
   const loadContest = async () => {
@@ -74,18 +85,49 @@ int main() {
 
   const loadLeaderboard = async () => {
     try {
-      const leaderboardData = await contestApi.getLeaderboard(contestId);
-      setLeaderboard(leaderboardData);
+      const leaderboardData = await contestApi.getLeaderboard(contestId, 0, LEADERBOARD_SIZE);
+      leaderboardVersion.current = leaderboardData.version;
+      setLeaderboard(leaderboardData.entries);
     } catch (error) {
       console.error('Failed to load leaderboard:', error);
     }
+    const storedUsername = localStorage.getItem('username');
+    if (storedUsername) {
+      // 404 until the user has solved something
+      contestApi.getLeaderboardRank(contestId, storedUsername)
+        .then(setMyRank)
+        .catch(() => setMyRank(null));
+    }
+  };
+
+  // Moves one row to its new rank; rows in between shift by one
+  const applyLeaderboardDelta = (delta: LeaderboardDelta) => {
+    if (delta.version <= leaderboardVersion.current) {
+      return; // already part of the page we loaded
+    }
+    leaderboardVersion.current = delta.version;
+
+    if (delta.username === localStorage.getItem('username')) {
+      setMyRank(delta.entry);
+    }
+
+    setLeaderboard(previous => {
+      const rows = previous.filter(row => row.username !== delta.username);
+      if (delta.entry && delta.entry.rank <= rows.length + 1 && delta.entry.rank <= LEADERBOARD_SIZE) {
+        rows.splice(delta.entry.rank - 1, 0, delta.entry);
+      }
+      const top = rows.slice(0, LEADERBOARD_SIZE).map((row, index) => ({ ...row, rank: index + 1 }));
+      if (top.length < Math.min(LEADERBOARD_SIZE, delta.total)) {
+        loadLeaderboard(); // a row left the top and we do not know who moves up
+      }
+      return top;
+    });
   };
 
   const loadUserSubmissions = async (problemId: number) => {
     try {
-      const submissionsData = await contestApi.getUserSubmissions(contestId, username);
-      const problemSubmissions = submissionsData.filter(s => s.problemId === problemId);
-      setSubmissions(problemSubmissions);
+      const page = await contestApi.getUserSubmissions(contestId, username, { problemId, limit: 20 });
+      setSubmissions(page.submissions);
     } catch (error) {
       console.error('Failed to load submissions:', error);
     }
@@ -122,41 +164,56 @@ int main() {
 
       toast.success('Code submitted successfully!');
       
-      // Poll for submission status
-      pollSubmissionStatus(submission.id);
+      // Follow the verdict as it is judged
+      watchSubmissionStatus(submission.id);
       
     } catch (error) {
-      toast.error('Failed to submit code');
+      const status = axios.isAxiosError(error) ? error.response?.status : undefined;
+      if (status === 429 || status === 503) {
+        const retryAfter = axios.isAxiosError(error) ? error.response?.headers['retry-after'] : undefined;
+        toast.error(`Judge is busy, please retry in ${retryAfter ?? 'a few'} seconds`);
+      } else {
+        toast.error('Failed to submit code');
+      }
     } finally {
       setSubmitting(false);
     }
   };
 
-  const pollSubmissionStatus = async (submissionId: number) => {
-    const pollInterval = setInterval(async () => {
-      try {
-        const submission = await contestApi.getSubmission(submissionId);
-        
-        if (submission.status === 'ACCEPTED' || submission.status === 'WRONG_ANSWER' || 
-            submission.status === 'TIME_LIMIT_EXCEEDED' || submission.status === 'RUNTIME_ERROR' ||
-            submission.status === 'COMPILATION_ERROR') {
-          clearInterval(pollInterval);
-          
-          if (submission.status === 'ACCEPTED') {
-            toast.success('Accepted! 🎉');
-          } else {
-            toast.error(`${submission.status}: ${submission.result}`);
-          }
-          
-          // Reload submissions and leaderboard
-          loadUserSubmissions(selectedProblem!.id);
-          loadLeaderboard();
+  const watchSubmissionStatus = (submissionId: number) => {
+    const events = contestApi.watchSubmission(submissionId);
+    setJudgeProgress('Queued');
+
+    events.addEventListener('status', (event) => {
+      const update: SubmissionStatusUpdate = JSON.parse((event as MessageEvent).data);
+
+      if (update.status === 'PENDING') {
+        setJudgeProgress('Queued');
+      } else if (update.status === 'RUNNING') {
+        setJudgeProgress(update.totalTests > 0
+          ? `Running test ${Math.min(update.testsCompleted + 1, update.totalTests)} of ${update.totalTests}`
+          : 'Compiling');
+      } else {
+        events.close();
+        setJudgeProgress(null);
+
+        if (update.status === 'ACCEPTED') {
+          toast.success('Accepted! 🎉');
+        } else {
+          toast.error(`${update.status}: ${update.result}`);
         }
-      } catch (error) {
-        console.error('Failed to poll submission status:', error);
-        clearInterval(pollInterval);
+
+        // Reload submissions; the leaderboard stream brings the new standings
+        loadUserSubmissions(selectedProblem!.id);
+      }
+    });
+
+    events.onerror = () => {
+      // EventSource reconnects by itself; clear the indicator only once it gives up
+      if (events.readyState === EventSource.CLOSED) {
+        setJudgeProgress(null);
       }
-    }, 2000); // Poll every 2 seconds
+    };
   };
 
   const getStatusColor = (status: string) => {
@@ -244,21 +301,36 @@ int main() {
               <div className="p-6">
                 <h2 className="text-lg font-semibold text-gray-900 mb-4">Leaderboard</h2>
                 <div className="space-y-2">
-                  {leaderboard.slice(0, 10).map((entry, index) => (
+                  {leaderboard.map((entry) => (
                     <div key={entry.username} className="flex justify-between items-center p-2 rounded bg-gray-50">
                       <div className="flex items-center">
                         <span className="text-sm font-medium text-gray-600 w-6">
-                          {index + 1}
+                          {entry.rank}
                         </span>
                         <span className="text-sm font-medium text-gray-900 ml-2">
                           {entry.username}
                         </span>
                       </div>
                       <div className="text-sm text-gray-600">
-                        {entry.solvedProblems} solved
+                        {entry.solvedProblems} solved · {entry.totalTime} min
                       </div>
                     </div>
                   ))}
+                  {myRank && myRank.rank > leaderboard.length && (
+                    <div className="flex justify-between items-center p-2 rounded bg-blue-50">
+                      <div className="flex items-center">
+                        <span className="text-sm font-medium text-gray-600 w-6">
+                          {myRank.rank}
+                        </span>
+                        <span className="text-sm font-medium text-gray-900 ml-2">
+                          {myRank.username}
+                        </span>
+                      </div>
+                      <div className="text-sm text-gray-600">
+                        {myRank.solvedProblems} solved · {myRank.totalTime} min
+                      </div>
+                    </div>
+                  )}
                 </div>
               </div>
             </div>
@@ -288,6 +360,19 @@ int main() {
                         </div>
                       </div>
 
+                      {selectedProblem.samples.map((sample, index) => (
+                        <div key={sample.id} className="grid grid-cols-1 md:grid-cols-2 gap-4 mb-4">
+                          <div>
+                            <h3 className="font-medium text-gray-900 mb-2">Sample Input {index + 1}</h3>
+                            <pre className="text-sm bg-gray-50 rounded p-2 overflow-x-auto">{sample.input}</pre>
+                          </div>
+                          <div>
+                            <h3 className="font-medium text-gray-900 mb-2">Sample Output {index + 1}</h3>
+                            <pre className="text-sm bg-gray-50 rounded p-2 overflow-x-auto">{sample.expectedOutput}</pre>
+                          </div>
+                        </div>
+                      ))}
+
                       <div className="flex space-x-4 text-sm text-gray-600">
                         <span>Time Limit: {selectedProblem.timeLimit}s</span>
                         <span>Memory Limit: {selectedProblem.memoryLimit}MB</span>
@@ -316,7 +401,7 @@ int main() {
                           disabled={submitting}
                           className="bg-blue-600 text-white px-4 py-2 rounded-md hover:bg-blue-700 disabled:opacity-50 disabled:cursor-not-allowed transition-colors"
                         >
-                          {submitting ? 'Submitting...' : 'Submit'}
+                          {submitting ? 'Submitting...' : judgeProgress ?? 'Submit'}
                         </button>
                       </div>
                     </div>
@@ -358,6 +443,12 @@ int main() {
                               <span className="text-sm text-gray-600">
                                 {submission.language.toUpperCase()}
                               </span>
+                              {submission.executionTime != null && (
+                                <span className="text-sm text-gray-500">
+                                  {submission.executionTime} ms
+                                  {submission.memoryUsed != null && ` · ${submission.memoryUsed} MB`}
+                                </span>
+                              )}
                             </div>
                             <span className={`px-2 py-1 rounded text-xs font-medium ${getStatusColor(submission.status)}`}>
                               {submission.status}
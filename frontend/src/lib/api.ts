@@ -28,7 +28,8 @@ export interface Problem {
   timeLimit: number;
   memoryLimit: number;
   difficulty: number;
-  testCases: TestCase[];
+  sampleCount: number; // all samples; more than `samples` holds are paged via getSamples
+  samples: TestCase[];
 }
 
 export interface TestCase {
@@ -38,14 +39,21 @@ export interface TestCase {
   isHidden: boolean;
 }
 
+export interface SamplePage {
+  page: number;
+  size: number;
+  total: number;
+  samples: TestCase[];
+}
+
 export interface Submission {
   id: number;
   code: string;
   language: string;
   status: 'PENDING' | 'RUNNING' | 'ACCEPTED' | 'WRONG_ANSWER' | 'TIME_LIMIT_EXCEEDED' | 'MEMORY_LIMIT_EXCEEDED' | 'RUNTIME_ERROR' | 'COMPILATION_ERROR';
   result: string;
-  executionTime: number;
-  memoryUsed: number;
+  executionTime: number | null; // slowest test, ms
+  memoryUsed: number | null; // largest peak memory, MB
   errorMessage: string;
   submittedAt: string;
   problemId: number;
@@ -53,6 +61,21 @@ export interface Submission {
   username: string;
 }
 
+// A submission as listed, without code or judge output
+export type SubmissionSummary = Omit<Submission, 'code' | 'errorMessage'>;
+
+export interface SubmissionPage {
+  submissions: SubmissionSummary[]; // newest first
+  nextCursor: string | null;
+}
+
+export interface SubmissionQuery {
+  problemId?: number;
+  status?: Submission['status'][];
+  cursor?: string;
+  limit?: number;
+}
+
 export interface SubmissionRequest {
   code: string;
   language: string;
@@ -61,20 +84,55 @@ export interface SubmissionRequest {
   username: string;
 }
 
+export interface SubmissionStatusUpdate {
+  submissionId: number;
+  status: string;
+  result: string | null;
+  errorMessage: string | null;
+  testsCompleted: number;
+  totalTests: number;
+}
+
 export interface LeaderboardEntry {
+  rank: number;
   username: string;
   solvedProblems: number;
   totalSubmissions: number;
   acceptedSubmissions: number;
-  totalTime: number;
+  totalTime: number; // ICPC time in minutes, penalties included
+}
+
+export interface LeaderboardPage {
+  offset: number;
+  limit: number;
+  total: number;
+  version: number;
+  entries: LeaderboardEntry[];
+}
+
+export interface LeaderboardDelta {
+  version: number;
+  username: string;
+  entry: LeaderboardEntry | null; // null when the user dropped off the board
+  total: number;
 }
 
 export const contestApi = {
   getContest: (contestId: number): Promise<Contest> =>
     api.get(`/contests/${contestId}`).then(res => res.data),
   
-  getLeaderboard: (contestId: number): Promise<LeaderboardEntry[]> =>
-    api.get(`/contests/${contestId}/leaderboard`).then(res => res.data),
+  getSamples: (problemId: number, page = 0, size = 5): Promise<SamplePage> =>
+    api.get(`/problems/${problemId}/samples`, { params: { page, size } }).then(res => res.data),
+  
+  getLeaderboard: (contestId: number, offset = 0, limit = 50): Promise<LeaderboardPage> =>
+    api.get(`/contests/${contestId}/leaderboard`, { params: { offset, limit } }).then(res => res.data),
+  
+  // Server-Sent Events stream of 'delta' and 'resync' events for one contest
+  watchLeaderboard: (contestId: number): EventSource =>
+    new EventSource(`${API_BASE_URL}/contests/${contestId}/leaderboard/stream`),
+  
+  getLeaderboardRank: (contestId: number, username: string): Promise<LeaderboardEntry> =>
+    api.get(`/contests/${contestId}/leaderboard/rank/${encodeURIComponent(username)}`).then(res => res.data),
   
   submitCode: (submission: SubmissionRequest): Promise<Submission> =>
     api.post('/submissions', submission).then(res => res.data),
@@ -82,11 +140,18 @@ export const contestApi = {
   getSubmission: (submissionId: number): Promise<Submission> =>
     api.get(`/submissions/${submissionId}`).then(res => res.data),
   
-  getContestSubmissions: (contestId: number): Promise<Submission[]> =>
-    api.get(`/contests/${contestId}/submissions`).then(res => res.data),
+  // Server-Sent Events stream of 'status' events, closed by the server after the verdict
+  watchSubmission: (submissionId: number): EventSource =>
+    new EventSource(`${API_BASE_URL}/submissions/${submissionId}/events`),
+  
+  getContestSubmissions: (contestId: number, query: SubmissionQuery = {}): Promise<SubmissionPage> =>
+    api.get(`/contests/${contestId}/submissions`, { params: query, paramsSerializer: { indexes: null } })
+      .then(res => res.data),
   
-  getUserSubmissions: (contestId: number, username: string): Promise<Submission[]> =>
-    api.get(`/contests/${contestId}/submissions/${username}`).then(res => res.data),
+  getUserSubmissions: (contestId: number, username: string, query: SubmissionQuery = {}): Promise<SubmissionPage> =>
+    api.get(`/contests/${contestId}/submissions/${encodeURIComponent(username)}`,
+      { params: query, paramsSerializer: { indexes: null } })
+      .then(res => res.data),
 };
 
 export default api;
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.onlinejudge.worker;
+
+import com.example.onlinejudge.checker.CheckerCache;
+import com.example.onlinejudge.config.AsyncConfig;
+import com.example.onlinejudge.config.JudgeProperties;
+import com.example.onlinejudge.migration.V6__MoveTestDataToStore;
+import com.example.onlinejudge.model.Submission;
+import com.example.onlinejudge.repository.SubmissionRepository;
+import com.example.onlinejudge.sandbox.Sandbox;
+import com.example.onlinejudge.service.JudgeDispatcher;
+import com.example.onlinejudge.service.JudgeQueueService;
+import com.example.onlinejudge.service.JudgeScheduler;
+import com.example.onlinejudge.service.JudgeService;
+import com.example.onlinejudge.service.SubmissionProgressTracker;
+import com.example.onlinejudge.service.TestDataStore;
+import com.example.onlinejudge.service.TestSetCache;
+import com.example.onlinejudge.service.VerdictCache;
+import com.example.onlinejudge.service.VerdictWriter;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Standalone judge node. Claims jobs from the judge_jobs table shared with
+ * the backend, runs them through the configured sandbox and writes the
+ * verdicts back; it serves no HTTP and owns no contest data. Start as many
+ * as the sandbox hosts allow, each with its own {@code judge.queue.node-id}.
+ */
+@SpringBootApplication
+@ComponentScan(basePackageClasses = Sandbox.class)
+@Import({AsyncConfig.class, JudgeProperties.class, JudgeService.class, JudgeQueueService.class,
+        JudgeScheduler.class, JudgeDispatcher.class, VerdictWriter.class, SubmissionProgressTracker.class,
+        CheckerCache.class, TestDataStore.class, TestSetCache.class, VerdictCache.class,
+        V6__MoveTestDataToStore.class})
+@EntityScan(basePackageClasses = Submission.class)
+@EnableJpaRepositories(basePackageClasses = SubmissionRepository.class)
+public class JudgeWorkerApplication {
+ 
+	public static void main(String[] args) {
+		// judge-worker.properties, so the backend's application.properties on the classpath is ignored
+		new SpringApplicationBuilder(JudgeWorkerApplication.class)
+				.properties("spring.config.name=judge-worker")
+				.run(args);
+	}
+    
+}